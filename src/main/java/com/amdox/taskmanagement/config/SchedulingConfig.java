@@ -0,0 +1,38 @@
+package com.amdox.taskmanagement.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Background jobs (outbox relay, reminders, retention, rollup and tag index refreshes).
+ * Switched off with scheduling.enabled=false, e.g. by tests that measure database work.
+ * <p>
+ * The jobs get their own pool, sized by spring.task.scheduling.pool.size. Spring Boot does
+ * not create its scheduler while the WebSocket broker's scheduler bean exists, and a single
+ * thread would hold the 500 ms outbox relay behind every long refresh or retention run.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SchedulingConfig implements SchedulingConfigurer {
+    
+    private final ThreadPoolTaskSchedulerBuilder schedulerBuilder;
+    
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        return schedulerBuilder.build();
+    }
+    
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(taskScheduler());
+    }
+}
@@ -1,19 +1,96 @@
 package com.amdox.taskmanagement.config;
 
+import com.amdox.taskmanagement.security.StompAuthChannelInterceptor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     
+    // Relayed prefix for node-to-node traffic; never a valid client subscription or SEND target
+    private static final String SYSTEM_PREFIX = "/system";
+    
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final TaskScheduler messageBrokerTaskScheduler;
+    
+    // simple = in-memory broker on this node; relay = external STOMP broker shared by all nodes
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+    
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+    
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+    
+    @Value("${websocket.broker.relay.login:guest}")
+    private String relayLogin;
+    
+    @Value("${websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+    
+    @Value("${websocket.broker.heartbeat-ms:10000}")
+    private long heartbeatMs;
+    
+    @Value("${websocket.channel.core-pool-size:8}")
+    private int channelCorePoolSize;
+    
+    @Value("${websocket.channel.max-pool-size:32}")
+    private int channelMaxPoolSize;
+    
+    @Value("${websocket.channel.queue-capacity:10000}")
+    private int channelQueueCapacity;
+    
+    @Value("${websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+    
+    @Value("${websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+    
+    @Value("${websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+    
+    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor,
+                           @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+    
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            config.enableStompBrokerRelay("/topic", "/queue", SYSTEM_PREFIX)
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setSystemHeartbeatSendInterval(heartbeatMs)
+                    .setSystemHeartbeatReceiveInterval(heartbeatMs)
+                    // Lets a node deliver to /user destinations whose session lives on another node;
+                    // only the nodes' system sessions subscribe here, clients are refused by the interceptor
+                    .setUserDestinationBroadcast(SYSTEM_PREFIX + "/unresolved-user-destination")
+                    .setUserRegistryBroadcast(SYSTEM_PREFIX + "/simp-user-registry");
+        } else {
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[] {heartbeatMs, heartbeatMs})
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
         config.setApplicationDestinationPrefixes("/app");
+        config.setUserDestinationPrefix("/user");
+        // Keeps per-session message order while the outbound channel runs on a pool
+        config.setPreservePublishOrder(true);
     }
     
     @Override
@@ -22,4 +99,29 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOrigins("http://localhost:3000", "http://localhost:4200")
                 .withSockJS();
     }
+    
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+        registration.taskExecutor()
+                .corePoolSize(channelCorePoolSize)
+                .maxPoolSize(channelMaxPoolSize)
+                .queueCapacity(channelQueueCapacity);
+    }
+    
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(channelCorePoolSize)
+                .maxPoolSize(channelMaxPoolSize)
+                .queueCapacity(channelQueueCapacity);
+    }
+    
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Sessions that fall behind these limits are closed instead of buffering without bound
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
 }
@@ -2,15 +2,15 @@ package com.amdox.taskmanagement.controller;
 
 import com.amdox.taskmanagement.dto.CommentRequest;
 import com.amdox.taskmanagement.dto.CommentResponse;
+import com.amdox.taskmanagement.dto.PageResponse;
+import com.amdox.taskmanagement.security.UserPrincipal;
 import com.amdox.taskmanagement.service.CommentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/comments")
 @RequiredArgsConstructor
@@ -22,18 +22,22 @@ public class CommentController {
     @PostMapping
     public ResponseEntity<CommentResponse> addComment(
             @Valid @RequestBody CommentRequest request,
-            Authentication authentication) {
-        return ResponseEntity.ok(commentService.addComment(request, authentication.getName()));
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        return ResponseEntity.ok(commentService.addComment(request, currentUser));
     }
     
     @GetMapping("/task/{taskId}")
-    public ResponseEntity<List<CommentResponse>> getCommentsByTask(@PathVariable Long taskId) {
-        return ResponseEntity.ok(commentService.getCommentsByTask(taskId));
+    public ResponseEntity<PageResponse<CommentResponse>> getCommentsByTask(
+            @PathVariable Long taskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(commentService.getCommentsByTask(taskId, cursor, since, size));
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteComment(@PathVariable Long id, Authentication authentication) {
-        commentService.deleteComment(id, authentication.getName());
+    public ResponseEntity<Void> deleteComment(@PathVariable Long id, @AuthenticationPrincipal UserPrincipal currentUser) {
+        commentService.deleteComment(id, currentUser);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,23 @@
+package com.amdox.taskmanagement.controller;
+
+import com.amdox.taskmanagement.dto.DashboardStats;
+import com.amdox.taskmanagement.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StatsController {
+    
+    private final DashboardService dashboardService;
+    
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardStats> getDashboard(
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false) Integer assignees) {
+        return ResponseEntity.ok(dashboardService.getDashboard(days, assignees));
+    }
+}
@@ -0,0 +1,30 @@
+package com.amdox.taskmanagement.controller;
+
+import com.amdox.taskmanagement.dto.TagCount;
+import com.amdox.taskmanagement.service.TagService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tags")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class TagController {
+    
+    private final TagService tagService;
+    
+    @GetMapping
+    public ResponseEntity<List<TagCount>> getTags(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(tagService.getTagCounts(limit));
+    }
+    
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<TagCount>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(tagService.autocomplete(prefix, limit));
+    }
+}
@@ -1,16 +1,35 @@
 package com.amdox.taskmanagement.controller;
 
+import com.amdox.taskmanagement.dto.PageResponse;
+import com.amdox.taskmanagement.dto.TaskBulkUpdateRequest;
+import com.amdox.taskmanagement.dto.TaskEventResponse;
+import com.amdox.taskmanagement.dto.TaskBulkUpdateResult;
+import com.amdox.taskmanagement.dto.TaskFilter;
+import com.amdox.taskmanagement.dto.TaskImportResult;
+import com.amdox.taskmanagement.dto.TaskPatchRequest;
 import com.amdox.taskmanagement.dto.TaskRequest;
 import com.amdox.taskmanagement.dto.TaskResponse;
 import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import com.amdox.taskmanagement.service.TaskHistoryService;
+import com.amdox.taskmanagement.service.TaskImportExportService;
 import com.amdox.taskmanagement.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -19,45 +38,142 @@ import java.util.List;
 public class TaskController {
     
     private final TaskService taskService;
+    private final TaskImportExportService importExportService;
+    private final TaskHistoryService taskHistoryService;
     
     @PostMapping
     public ResponseEntity<TaskResponse> createTask(
             @Valid @RequestBody TaskRequest request,
-            Authentication authentication) {
-        return ResponseEntity.ok(taskService.createTask(request, authentication.getName()));
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        return ResponseEntity.ok(taskService.createTask(request, currentUser));
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponse> updateTask(
             @PathVariable Long id,
             @Valid @RequestBody TaskRequest request,
-            Authentication authentication) {
-        return ResponseEntity.ok(taskService.updateTask(id, request, authentication.getName()));
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        return withETag(taskService.updateTask(id, request, parseIfMatch(id, ifMatch), currentUser));
+    }
+    
+    @PatchMapping("/{id}")
+    public ResponseEntity<TaskResponse> patchTask(
+            @PathVariable Long id,
+            @Valid @RequestBody TaskPatchRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        return withETag(taskService.patchTask(id, request, parseIfMatch(id, ifMatch), currentUser));
+    }
+    
+    @PatchMapping("/bulk")
+    public ResponseEntity<TaskBulkUpdateResult> bulkUpdate(
+            @Valid @RequestBody TaskBulkUpdateRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        return ResponseEntity.ok(taskService.bulkUpdate(request, currentUser));
     }
     
     @GetMapping
-    public ResponseEntity<List<TaskResponse>> getAllTasks() {
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public ResponseEntity<PageResponse<TaskResponse>> getAllTasks(TaskFilter filter) {
+        return ResponseEntity.ok(taskService.getAllTasks(filter));
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<PageResponse<TaskResponse>> searchTasks(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(taskService.searchTasks(q, cursor, size));
     }
     
     @GetMapping("/my-tasks")
-    public ResponseEntity<List<TaskResponse>> getMyTasks(Authentication authentication) {
-        return ResponseEntity.ok(taskService.getMyTasks(authentication.getName()));
+    public ResponseEntity<PageResponse<TaskResponse>> getMyTasks(
+            TaskFilter filter,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        return ResponseEntity.ok(taskService.getMyTasks(currentUser, filter));
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TaskResponse>> getTasksByStatus(@PathVariable Task.Status status) {
-        return ResponseEntity.ok(taskService.getTasksByStatus(status));
+    public ResponseEntity<PageResponse<TaskResponse>> getTasksByStatus(
+            @PathVariable Task.Status status,
+            TaskFilter filter) {
+        return ResponseEntity.ok(taskService.getTasksByStatus(status, filter));
+    }
+    
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<TaskImportResult> importTasks(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "true") boolean notify,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        TaskImportExportService.Format format = TaskImportExportService.Format.fromContentType(contentType);
+        return ResponseEntity.ok(importExportService.importTasks(body, format, notify, currentUser));
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            TaskFilter filter,
+            @RequestParam(defaultValue = "NDJSON") TaskImportExportService.Format format) {
+        StreamingResponseBody body = out -> importExportService.exportTasks(filter, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + format.getExtension() + "\"")
+                .body(body);
     }
     
     @GetMapping("/{id}")
     public ResponseEntity<TaskResponse> getTaskById(@PathVariable Long id) {
-        return ResponseEntity.ok(taskService.getTaskById(id));
+        return withETag(taskService.getTaskById(id));
+    }
+    
+    @GetMapping("/{id}/history")
+    public ResponseEntity<PageResponse<TaskEventResponse>> getTaskHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(taskHistoryService.getHistory(id, cursor, size));
+    }
+    
+    @GetMapping("/{id}/history/as-of")
+    public ResponseEntity<Map<String, Object>> getTaskStateAt(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(taskHistoryService.getStateAt(id, at));
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTask(@PathVariable Long id, Authentication authentication) {
-        taskService.deleteTask(id, authentication.getName());
+    public ResponseEntity<Void> deleteTask(@PathVariable Long id, @AuthenticationPrincipal UserPrincipal currentUser) {
+        taskService.deleteTask(id, currentUser);
         return ResponseEntity.noContent().build();
     }
+    
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleVersionConflict(ObjectOptimisticLockingFailureException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Task has been modified by someone else; reload it and retry");
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+    
+    private ResponseEntity<TaskResponse> withETag(TaskResponse task) {
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(task.getVersion()))
+                .body(task);
+    }
+    
+    // Accepts "3", "\"3\"" or W/"3"; "*" (or no header) means any version
+    private Long parseIfMatch(Long taskId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            // A tag we never issued cannot match the current version
+            throw new ObjectOptimisticLockingFailureException(Task.class, taskId);
+        }
+    }
 }
@@ -2,6 +2,8 @@ package com.amdox.taskmanagement.controller;
 
 import com.amdox.taskmanagement.entity.User;
 import com.amdox.taskmanagement.repository.UserRepository;
+import com.amdox.taskmanagement.security.PrincipalCache;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,6 +21,8 @@ import java.util.stream.Collectors;
 public class UserController {
     
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final EntityManagerFactory entityManagerFactory;
     
     @GetMapping
     public ResponseEntity<List<Map<String, Object>>> getAllUsers() {
@@ -65,6 +69,7 @@ public class UserController {
         User.Role role = User.Role.valueOf(roleStr);
         user.setRole(role);
         userRepository.save(user);
+        evictCachedUser(user);
         
         Map<String, Object> response = new HashMap<>();
         response.put("message", "User role updated successfully");
@@ -85,6 +90,7 @@ public class UserController {
         boolean enabled = request.get("enabled");
         user.setEnabled(enabled);
         userRepository.save(user);
+        evictCachedUser(user);
         
         Map<String, Object> response = new HashMap<>();
         response.put("message", "User status updated successfully");
@@ -93,4 +99,10 @@ public class UserController {
         
         return ResponseEntity.ok(response);
     }
+    
+    // Role and status feed authorization, so drop every cached copy rather than wait for expiry
+    private void evictCachedUser(User user) {
+        principalCache.invalidate(user.getUsername());
+        entityManagerFactory.getCache().evict(User.class, user.getId());
+    }
 }
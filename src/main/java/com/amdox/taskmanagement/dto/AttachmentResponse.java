@@ -0,0 +1,22 @@
+package com.amdox.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentResponse {
+    private Long id;
+    private String fileName;
+    private String fileType;
+    private Long fileSize;
+    private String sha256;
+    private Long taskId;
+    private Long uploadedById;
+    private String uploadedByName;
+    private LocalDateTime uploadedAt;
+}
@@ -0,0 +1,52 @@
+package com.amdox.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard numbers as of the last rollup refresh ({@code refreshedAt}).
+ */
+@Data
+@NoArgsConstructor
+public class DashboardStats {
+    private long totalTasks;
+    private long overdueTasks;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byPriority;
+    private List<CategoryCount> byCategory;
+    private List<AssigneeWorkload> workload;
+    private List<DailyThroughput> throughput;
+    private LocalDateTime refreshedAt;
+    
+    @Data
+    @AllArgsConstructor
+    public static class CategoryCount {
+        private String category;
+        private long total;
+        private long open;
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class AssigneeWorkload {
+        private Long userId;
+        private String fullName;
+        private long open;
+        private long inProgress;
+        private long overdue;
+        private long completedLast30Days;
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class DailyThroughput {
+        private LocalDate day;
+        private long completed;
+    }
+}
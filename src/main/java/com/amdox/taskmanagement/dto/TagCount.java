@@ -0,0 +1,11 @@
+package com.amdox.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TagCount {
+    private String name;
+    private Long count;
+}
@@ -0,0 +1,33 @@
+package com.amdox.taskmanagement.dto;
+
+import com.amdox.taskmanagement.entity.Task;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Selects tasks either by {@code ids} or by {@code filter} and applies the same {@code patch} to all of them.
+ */
+@Data
+public class TaskBulkUpdateRequest {
+    @Size(max = 5000)
+    private List<Long> ids;
+    
+    private TaskFilter filter;
+    
+    @Valid
+    @NotNull(message = "Patch is required")
+    private Patch patch;
+    
+    @Data
+    public static class Patch {
+        private Task.Status status;
+        
+        private Task.Priority priority;
+        
+        private Long assignedToId;
+    }
+}
@@ -0,0 +1,14 @@
+package com.amdox.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TaskBulkUpdateResult {
+    private int updated;
+    // Requested ids that do not exist or that the caller may not modify
+    private List<Long> skippedIds;
+}
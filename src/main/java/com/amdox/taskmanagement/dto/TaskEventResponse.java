@@ -0,0 +1,24 @@
+package com.amdox.taskmanagement.dto;
+
+import com.amdox.taskmanagement.entity.TaskEvent;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskEventResponse {
+    private Long id;
+    private Long taskId;
+    private TaskEvent.EventType type;
+    private Long taskVersion;
+    private Long actorId;
+    private LocalDateTime occurredAt;
+    // Stored JSON, passed through without re-parsing
+    @JsonRawValue
+    private String changes;
+}
@@ -0,0 +1,39 @@
+package com.amdox.taskmanagement.dto;
+
+import com.amdox.taskmanagement.entity.Task;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class TaskFilter {
+    private Task.Status status;
+    
+    private Task.Priority priority;
+    
+    private String category;
+    
+    private Long assignedToId;
+    
+    // Repeatable (?tag=a&tag=b): tasks carrying all of the given tags
+    private List<String> tag;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime deadlineFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime deadlineTo;
+    
+    private SortOrder sort = SortOrder.ID;
+    
+    private String cursor;
+    
+    private Integer size;
+    
+    public enum SortOrder {
+        ID,
+        DEADLINE
+    }
+}
@@ -0,0 +1,34 @@
+package com.amdox.taskmanagement.dto;
+
+import com.amdox.taskmanagement.entity.Task;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Partial task update: only non-null fields are applied.
+ */
+@Data
+public class TaskPatchRequest {
+    @Size(min = 3, max = 200)
+    private String title;
+    
+    @Size(max = 2000)
+    private String description;
+    
+    private Task.Priority priority;
+    
+    private Task.Status status;
+    
+    @Future(message = "Deadline must be in the future")
+    private LocalDateTime deadline;
+    
+    private Long assignedToId;
+    
+    @Size(min = 1, max = 255)
+    private String category;
+    
+    @Size(max = 255)
+    private String tags;
+}
@@ -26,7 +26,9 @@ public class TaskRequest {
     
     private Long assignedToId;
     
+    @Size(max = 255)
     private String category = "General";
     
+    @Size(max = 255)
     private String tags;
 }
@@ -1,11 +1,15 @@
 package com.amdox.taskmanagement.dto;
 
 import com.amdox.taskmanagement.entity.Task;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class TaskResponse {
     private Long id;
     private String title;
@@ -22,4 +26,5 @@ public class TaskResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime completedAt;
+    private Long version;
 }
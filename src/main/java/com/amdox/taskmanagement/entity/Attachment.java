@@ -9,19 +9,24 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attachments")
+@Table(name = "attachments", indexes = {
+        @Index(name = "idx_attachments_task", columnList = "task_id"),
+        @Index(name = "idx_attachments_sha256", columnList = "sha256")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Attachment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attachments_seq")
+    @SequenceGenerator(name = "attachments_seq", sequenceName = "attachments_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
     private String fileName;
     
+    // Relative to attachments.storage-dir; content-addressed (see sha256) for new uploads
     @Column(nullable = false)
     private String filePath;
     
@@ -29,6 +34,9 @@ public class Attachment {
     
     private Long fileSize;
     
+    @Column(length = 64)
+    private String sha256;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id", nullable = false)
     private Task task;
@@ -0,0 +1,53 @@
+package com.amdox.taskmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventType type;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    private Long taskId;
+    
+    private String message;
+    
+    @Enumerated(EnumType.STRING)
+    private Notification.NotificationType notificationType;
+    
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime claimedUntil;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    private LocalDateTime failedAt;
+    
+    public enum EventType {
+        NOTIFICATION,
+        TASK_ASSIGNMENT_EMAIL,
+        TASK_DIGEST_EMAIL
+    }
+}
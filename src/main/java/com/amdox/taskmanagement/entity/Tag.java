@@ -0,0 +1,46 @@
+package com.amdox.taskmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.util.Locale;
+
+/**
+ * A distinct, normalized (trimmed, lower-case, at most 64 characters) tag name. Rows are
+ * written by the database trigger that derives tags from {@link Task#getTags()}, never by the
+ * application.
+ */
+@Entity
+@Table(name = "tags")
+@Immutable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tag {
+    
+    public static final int MAX_NAME_LENGTH = 64;
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false, unique = true, length = MAX_NAME_LENGTH)
+    private String name;
+    
+    /**
+     * Same normalization the database applies when deriving tags (normalized_tags): trimmed,
+     * lower-case and cut to {@value #MAX_NAME_LENGTH} characters, counted like SQL left().
+     */
+    public static String normalize(String tag) {
+        if (tag == null) {
+            return "";
+        }
+        String normalized = tag.trim().toLowerCase(Locale.ROOT);
+        if (normalized.codePointCount(0, normalized.length()) > MAX_NAME_LENGTH) {
+            normalized = normalized.substring(0, normalized.offsetByCodePoints(0, MAX_NAME_LENGTH));
+        }
+        return normalized;
+    }
+}
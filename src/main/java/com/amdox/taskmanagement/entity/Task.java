@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -12,14 +13,20 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_assignee_status", columnList = "assigned_to_id, status"),
+        @Index(name = "idx_tasks_status_id", columnList = "status, id"),
+        @Index(name = "idx_tasks_deadline_id", columnList = "deadline, id"),
+        @Index(name = "idx_tasks_created_by", columnList = "created_by_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -62,11 +69,26 @@ public class Task {
     
     private LocalDateTime completedAt;
     
+    // Set when the deadline reminder for the current deadline has been issued
+    private LocalDateTime reminderSentAt;
+    
     @Column(nullable = false)
     private String category = "General";
     
     private String tags;
     
+    // Normalized view of tags, maintained from the tags column by a database trigger
+    @ManyToMany
+    @JoinTable(name = "task_tags",
+            joinColumns = @JoinColumn(name = "task_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"))
+    @Immutable
+    private Set<Tag> tagSet = new HashSet<>();
+    
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     public enum Priority {
         LOW,
         MEDIUM,
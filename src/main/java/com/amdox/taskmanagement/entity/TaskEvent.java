@@ -0,0 +1,54 @@
+package com.amdox.taskmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only task history. {@code changes} is a JSON object of the
+ * fields the change set (new values only); CREATED and SNAPSHOT events carry the full state.
+ */
+@Entity
+@Immutable
+@Table(name = "task_events", indexes = {
+        @Index(name = "idx_task_events_task", columnList = "task_id, task_version, occurred_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_events_seq")
+    @SequenceGenerator(name = "task_events_seq", sequenceName = "task_events_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long taskId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventType type;
+    
+    @Column(nullable = false)
+    private Long taskVersion;
+    
+    private Long actorId;
+    
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String changes;
+    
+    public enum EventType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        SNAPSHOT
+    }
+}
@@ -1,7 +1,9 @@
 package com.amdox.taskmanagement.repository;
 
+import com.amdox.taskmanagement.dto.AttachmentResponse;
 import com.amdox.taskmanagement.entity.Attachment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +11,19 @@ import java.util.List;
 @Repository
 public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
     List<Attachment> findByTaskId(Long taskId);
+    
+    @Query("SELECT new com.amdox.taskmanagement.dto.AttachmentResponse(" +
+           "a.id, a.fileName, a.fileType, a.fileSize, a.sha256, a.task.id, u.id, u.fullName, a.uploadedAt) " +
+           "FROM Attachment a JOIN a.uploadedBy u WHERE a.task.id = ?1 ORDER BY a.id")
+    List<AttachmentResponse> findResponsesByTaskId(Long taskId);
+    
+    long countBySha256(String sha256);
+    
+    /**
+     * Locks one stored content until the transaction ends, on every node sharing the database.
+     * Storing and releasing the content both take it, so a file is never removed under an upload.
+     */
+    @Query(value = "SELECT true FROM pg_advisory_xact_lock(hashtext('attachment_content'), hashtext(?1))",
+           nativeQuery = true)
+    boolean lockContent(String sha256);
 }
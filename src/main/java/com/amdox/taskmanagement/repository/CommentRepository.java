@@ -1,13 +1,35 @@
 package com.amdox.taskmanagement.repository;
 
+import com.amdox.taskmanagement.dto.CommentResponse;
 import com.amdox.taskmanagement.entity.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByTaskId(Long taskId);
     List<Comment> findByUserId(Long userId);
+    
+    @Query("SELECT new com.amdox.taskmanagement.dto.CommentResponse(" +
+           "c.id, c.content, c.task.id, u.id, u.fullName, c.createdAt) " +
+           "FROM Comment c JOIN c.user u WHERE c.task.id = ?1 " +
+           "ORDER BY c.createdAt, c.id")
+    List<CommentResponse> findFeedByTaskId(Long taskId, Pageable pageable);
+    
+    @Query("SELECT new com.amdox.taskmanagement.dto.CommentResponse(" +
+           "c.id, c.content, c.task.id, u.id, u.fullName, c.createdAt) " +
+           "FROM Comment c JOIN c.user u WHERE c.task.id = ?1 " +
+           "AND (c.createdAt > ?2 OR (c.createdAt = ?2 AND c.id > ?3)) " +
+           "ORDER BY c.createdAt, c.id")
+    List<CommentResponse> findFeedByTaskIdAfter(Long taskId, LocalDateTime afterCreatedAt, Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.amdox.taskmanagement.dto.CommentResponse(" +
+           "c.id, c.content, c.task.id, u.id, u.fullName, c.createdAt) " +
+           "FROM Comment c JOIN c.user u WHERE c.task.id = ?1 AND c.createdAt >= ?2 " +
+           "ORDER BY c.createdAt, c.id")
+    List<CommentResponse> findFeedByTaskIdFrom(Long taskId, LocalDateTime fromCreatedAt, Pageable pageable);
 }
@@ -0,0 +1,103 @@
+package com.amdox.taskmanagement.repository;
+
+import com.amdox.taskmanagement.dto.DashboardStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reads and refreshes the dashboard materialized views (see V14__dashboard_rollups.sql).
+ */
+@Repository
+public class DashboardRepository {
+    
+    private static final List<String> ROLLUP_VIEWS = List.of(
+            "task_counts_mv", "task_category_counts_mv", "assignee_workload_mv", "task_throughput_daily_mv");
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Rows of {status, priority, overdue, count, refreshedAt}.
+     */
+    public List<Object[]> findTaskCounts() {
+        return nativeQuery("SELECT status, priority, overdue, task_count, refreshed_at FROM task_counts_mv")
+                .addScalar("status", String.class)
+                .addScalar("priority", String.class)
+                .addScalar("overdue", Boolean.class)
+                .addScalar("task_count", Long.class)
+                .addScalar("refreshed_at", LocalDateTime.class)
+                .getResultList();
+    }
+    
+    public List<DashboardStats.CategoryCount> findCategoryCounts(int limit) {
+        List<Object[]> rows = nativeQuery("SELECT category, task_count, open_count FROM task_category_counts_mv " +
+                                          "ORDER BY task_count DESC, category LIMIT :limit")
+                .addScalar("category", String.class)
+                .addScalar("task_count", Long.class)
+                .addScalar("open_count", Long.class)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new DashboardStats.CategoryCount((String) row[0], (Long) row[1], (Long) row[2]))
+                .toList();
+    }
+    
+    public List<DashboardStats.AssigneeWorkload> findWorkload(int limit) {
+        List<Object[]> rows = nativeQuery("SELECT w.user_id, u.full_name, w.open_count, w.in_progress_count, " +
+                                          "w.overdue_count, w.completed_last_30_days " +
+                                          "FROM assignee_workload_mv w JOIN users u ON u.id = w.user_id " +
+                                          "ORDER BY w.open_count DESC, w.user_id LIMIT :limit")
+                .addScalar("user_id", Long.class)
+                .addScalar("full_name", String.class)
+                .addScalar("open_count", Long.class)
+                .addScalar("in_progress_count", Long.class)
+                .addScalar("overdue_count", Long.class)
+                .addScalar("completed_last_30_days", Long.class)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new DashboardStats.AssigneeWorkload((Long) row[0], (String) row[1],
+                        (Long) row[2], (Long) row[3], (Long) row[4], (Long) row[5]))
+                .toList();
+    }
+    
+    public List<DashboardStats.DailyThroughput> findThroughputSince(LocalDate firstDay) {
+        List<Object[]> rows = nativeQuery("SELECT day, completed_count FROM task_throughput_daily_mv " +
+                                          "WHERE day >= :firstDay ORDER BY day")
+                .addScalar("day", LocalDate.class)
+                .addScalar("completed_count", Long.class)
+                .setParameter("firstDay", firstDay)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new DashboardStats.DailyThroughput((LocalDate) row[0], (Long) row[1]))
+                .toList();
+    }
+    
+    /**
+     * Refreshes every rollup in the current transaction, unless another node already is.
+     * CONCURRENTLY keeps the views readable while they are rebuilt.
+     */
+    public boolean refreshRollups() {
+        Boolean locked = (Boolean) entityManager
+                .createNativeQuery("SELECT pg_try_advisory_xact_lock(hashtext('dashboard_rollups'))")
+                .getSingleResult();
+        if (!Boolean.TRUE.equals(locked)) {
+            return false;
+        }
+        for (String view : ROLLUP_VIEWS) {
+            entityManager.createNativeQuery("REFRESH MATERIALIZED VIEW CONCURRENTLY " + view).executeUpdate();
+        }
+        return true;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Object[]> nativeQuery(String sql) {
+        return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+    }
+}
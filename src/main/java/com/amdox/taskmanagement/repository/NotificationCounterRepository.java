@@ -0,0 +1,64 @@
+package com.amdox.taskmanagement.repository;
+
+import com.amdox.taskmanagement.entity.NotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, Long> {
+    
+    @Query("SELECT c.unreadCount FROM NotificationCounter c WHERE c.userId = ?1")
+    Optional<Long> findUnreadCount(Long userId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count) VALUES (?1, GREATEST(?2, 0)) " +
+                   "ON CONFLICT (user_id) DO UPDATE " +
+                   "SET unread_count = GREATEST(notification_counters.unread_count + ?2, 0)",
+           nativeQuery = true)
+    void addUnread(Long userId, long delta);
+    
+    @Modifying
+    @Query("UPDATE NotificationCounter c SET c.unreadCount = 0 WHERE c.userId = ?1")
+    void resetUnread(Long userId);
+    
+    /**
+     * Row-locks the user's counter (creating it if missing) until the transaction ends.
+     * Every counter writer takes this lock before touching the user's notifications, so
+     * a statement issued afterwards sees all notifications already counted.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count) VALUES (?1, 0) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET unread_count = notification_counters.unread_count",
+           nativeQuery = true)
+    void lock(Long userId);
+    
+    // The same lock for the next batch of users, taken in user id order
+    @Transactional
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count) " +
+                   "SELECT id, 0 FROM users WHERE id > ?1 ORDER BY id LIMIT ?2 " +
+                   "ON CONFLICT (user_id) DO UPDATE SET unread_count = notification_counters.unread_count " +
+                   "RETURNING user_id",
+           nativeQuery = true)
+    List<Long> lockBatchAfter(Long afterUserId, int limit);
+    
+    /**
+     * Rewrites drifted counters from the notifications table. Must run after {@link #lockBatchAfter}
+     * in the same transaction: the counts then include every increment already applied, and
+     * increments still waiting on the lock are applied on top of them.
+     */
+    @Modifying
+    @Query(value = "UPDATE notification_counters c SET unread_count = s.unread " +
+                   "FROM (SELECT c2.user_id, (SELECT COUNT(*) FROM notifications n " +
+                   "      WHERE n.user_id = c2.user_id AND n.is_read = false) AS unread " +
+                   "      FROM notification_counters c2 WHERE c2.user_id IN (?1)) s " +
+                   "WHERE c.user_id = s.user_id AND c.unread_count <> s.unread",
+           nativeQuery = true)
+    int reconcile(Collection<Long> userIds);
+}
@@ -1,14 +1,55 @@
 package com.amdox.taskmanagement.repository;
 
 import com.amdox.taskmanagement.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
-    List<Notification> findByUserIdAndIsReadFalse(Long userId);
     long countByUserIdAndIsReadFalse(Long userId);
+    
+    @Query("SELECT n FROM Notification n LEFT JOIN FETCH n.task " +
+           "WHERE n.user.id = ?1 AND n.id < ?2 ORDER BY n.id DESC")
+    List<Notification> findPageByUserId(Long userId, Long beforeId, Pageable pageable);
+    
+    @Query("SELECT n FROM Notification n LEFT JOIN FETCH n.task " +
+           "WHERE n.user.id = ?1 AND n.isRead = false AND n.id < ?2 ORDER BY n.id DESC")
+    List<Notification> findUnreadPageByUserId(Long userId, Long beforeId, Pageable pageable);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = ?2 WHERE n.user.id = ?1 AND n.isRead = false")
+    int markAllAsRead(Long userId, LocalDateTime readAt);
+    
+    // 1 only for the caller that actually flipped the flag
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = ?2 WHERE n.id = ?1 AND n.isRead = false")
+    int markAsRead(Long notificationId, LocalDateTime readAt);
+    
+    @Modifying
+    @Query(value = "WITH moved AS (" +
+                   "  DELETE FROM notifications WHERE id IN (" +
+                   "    SELECT id FROM notifications WHERE is_read = true AND created_at < ?1 " +
+                   "    ORDER BY id LIMIT ?2 FOR UPDATE SKIP LOCKED) " +
+                   "  RETURNING id, message, type, user_id, task_id, is_read, created_at, read_at) " +
+                   "INSERT INTO notifications_archive " +
+                   "(id, message, type, user_id, task_id, is_read, created_at, read_at, archived_at) " +
+                   "SELECT id, message, type, user_id, task_id, is_read, created_at, read_at, now() FROM moved",
+           nativeQuery = true)
+    int archiveReadBefore(LocalDateTime cutoff, int limit);
+    
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE id IN (" +
+                   "SELECT id FROM notifications WHERE is_read = true AND created_at < ?1 " +
+                   "ORDER BY id LIMIT ?2 FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int purgeReadBefore(LocalDateTime cutoff, int limit);
 }
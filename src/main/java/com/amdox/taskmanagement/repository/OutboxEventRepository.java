@@ -0,0 +1,54 @@
+package com.amdox.taskmanagement.repository;
+
+import com.amdox.taskmanagement.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    // lock.timeout -2 is Hibernate's SKIP LOCKED, so concurrent relays never block each other.
+    // Claimed emails are skipped until the claim expires; parked failures are skipped for good.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.failedAt IS NULL " +
+           "AND (e.claimedUntil IS NULL OR e.claimedUntil < ?1) ORDER BY e.id")
+    List<OutboxEvent> lockNextBatch(LocalDateTime now, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = ?2 WHERE e.id IN ?1")
+    void claim(Collection<Long> ids, LocalDateTime claimedUntil);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id = ?1")
+    void markDelivered(Long id);
+    
+    // Makes the event eligible again at retryAt
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = ?2 WHERE e.id = ?1")
+    void releaseClaim(Long id, LocalDateTime retryAt);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = ?2, e.attempts = e.attempts + 1 WHERE e.id = ?1")
+    void recordFailedAttempt(Long id, LocalDateTime retryAt);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.failedAt = ?2, e.attempts = e.attempts + 1 WHERE e.id = ?1")
+    void markFailed(Long id, LocalDateTime failedAt);
+}
@@ -0,0 +1,16 @@
+package com.amdox.taskmanagement.repository;
+
+import com.amdox.taskmanagement.dto.TagCount;
+import com.amdox.taskmanagement.entity.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+    @Query("SELECT new com.amdox.taskmanagement.dto.TagCount(tg.name, COUNT(t)) " +
+           "FROM Task t JOIN t.tagSet tg GROUP BY tg.name")
+    List<TagCount> countTasksPerTag();
+}
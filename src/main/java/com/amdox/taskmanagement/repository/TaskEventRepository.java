@@ -0,0 +1,37 @@
+package com.amdox.taskmanagement.repository;
+
+import com.amdox.taskmanagement.dto.TaskEventResponse;
+import com.amdox.taskmanagement.entity.TaskEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskEventRepository extends JpaRepository<TaskEvent, Long> {
+    
+    // Event ids come from per-node pooled blocks, so history is ordered by the task version
+    // each change produced; occurredAt and id only break ties (e.g. a delete after the last update)
+    
+    @Query("SELECT new com.amdox.taskmanagement.dto.TaskEventResponse(" +
+           "e.id, e.taskId, e.type, e.taskVersion, e.actorId, e.occurredAt, e.changes) " +
+           "FROM TaskEvent e WHERE e.taskId = ?1 " +
+           "ORDER BY e.taskVersion, e.occurredAt, e.id")
+    List<TaskEventResponse> findHistory(Long taskId, Pageable pageable);
+    
+    @Query("SELECT new com.amdox.taskmanagement.dto.TaskEventResponse(" +
+           "e.id, e.taskId, e.type, e.taskVersion, e.actorId, e.occurredAt, e.changes) " +
+           "FROM TaskEvent e WHERE e.taskId = ?1 " +
+           "AND (e.taskVersion > ?2 OR (e.taskVersion = ?2 " +
+           "AND (e.occurredAt > ?3 OR (e.occurredAt = ?3 AND e.id > ?4)))) " +
+           "ORDER BY e.taskVersion, e.occurredAt, e.id")
+    List<TaskEventResponse> findHistoryAfter(Long taskId, Long afterVersion, LocalDateTime afterOccurredAt,
+                                             Long afterId, Pageable pageable);
+    
+    @Query("SELECT e FROM TaskEvent e WHERE e.taskId = ?1 AND e.occurredAt <= ?2 " +
+           "ORDER BY e.taskVersion, e.occurredAt, e.id")
+    List<TaskEvent> findUpTo(Long taskId, LocalDateTime at);
+}
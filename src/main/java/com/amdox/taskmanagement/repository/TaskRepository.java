@@ -1,16 +1,21 @@
 package com.amdox.taskmanagement.repository;
 
+import com.amdox.taskmanagement.dto.TaskResponse;
 import com.amdox.taskmanagement.entity.Task;
 import com.amdox.taskmanagement.entity.Task.Status;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     List<Task> findByAssignedToId(Long userId);
     List<Task> findByCreatedById(Long userId);
     List<Task> findByStatus(Status status);
@@ -22,4 +27,59 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     
     @Query("SELECT t FROM Task t WHERE t.assignedTo.id = ?1 AND t.deadline BETWEEN ?2 AND ?3")
     List<Task> findUpcomingTasksByUser(Long userId, LocalDateTime start, LocalDateTime end);
+    
+    @Query("SELECT DISTINCT t.assignedTo.id FROM Task t " +
+           "WHERE t.reminderSentAt IS NULL AND t.status <> ?3 AND t.deadline BETWEEN ?1 AND ?2 " +
+           "AND t.assignedTo.id > ?4 ORDER BY t.assignedTo.id")
+    List<Long> findAssigneesDueForReminder(LocalDateTime from, LocalDateTime until, Status excluded,
+                                           Long afterUserId, Pageable pageable);
+    
+    // Stamps and returns the due, not yet reminded tasks of these assignees in one statement
+    @Transactional
+    @Query(value = "UPDATE tasks SET reminder_sent_at = ?2 " +
+                   "WHERE assigned_to_id IN (?1) AND reminder_sent_at IS NULL AND status <> 'COMPLETED' " +
+                   "AND deadline BETWEEN ?2 AND ?3 " +
+                   "RETURNING id",
+           nativeQuery = true)
+    List<Long> claimDueReminders(Collection<Long> assigneeIds, LocalDateTime from, LocalDateTime until);
+    
+    @Query("SELECT t FROM Task t JOIN FETCH t.assignedTo WHERE t.id IN ?1")
+    List<Task> findWithAssigneeByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT new com.amdox.taskmanagement.dto.TaskResponse(" +
+           "t.id, t.title, t.description, t.priority, t.status, t.deadline, t.category, t.tags, " +
+           "a.id, a.fullName, c.id, c.fullName, t.createdAt, t.updatedAt, t.completedAt, t.version) " +
+           "FROM Task t LEFT JOIN t.assignedTo a LEFT JOIN t.createdBy c WHERE t.id = ?1")
+    Optional<TaskResponse> findResponseById(Long id);
+    
+    @Query("SELECT new com.amdox.taskmanagement.dto.TaskResponse(" +
+           "t.id, t.title, t.description, t.priority, t.status, t.deadline, t.category, t.tags, " +
+           "a.id, a.fullName, c.id, c.fullName, t.createdAt, t.updatedAt, t.completedAt, t.version) " +
+           "FROM Task t LEFT JOIN t.assignedTo a LEFT JOIN t.createdBy c WHERE t.id IN ?1")
+    List<TaskResponse> findResponsesByIdIn(Collection<Long> ids);
+    
+    // Full-text search over the trigger-maintained search_vector (GIN index), best match first
+    @Query(value = "SELECT id, score FROM (" +
+                   "  SELECT t.id, ts_rank(t.search_vector, q) AS score " +
+                   "  FROM tasks t, websearch_to_tsquery('english', ?1) q " +
+                   "  WHERE t.search_vector @@ q) hits " +
+                   "ORDER BY score DESC, id DESC LIMIT ?2",
+           nativeQuery = true)
+    List<SearchHit> search(String query, int limit);
+    
+    // Next page after the (score, id) of the last hit returned
+    @Query(value = "SELECT id, score FROM (" +
+                   "  SELECT t.id, ts_rank(t.search_vector, q) AS score " +
+                   "  FROM tasks t, websearch_to_tsquery('english', ?1) q " +
+                   "  WHERE t.search_vector @@ q) hits " +
+                   "WHERE score < ?2 OR (score = ?2 AND id < ?3) " +
+                   "ORDER BY score DESC, id DESC LIMIT ?4",
+           nativeQuery = true)
+    List<SearchHit> searchAfter(String query, float afterScore, long afterId, int limit);
+    
+    interface SearchHit {
+        Long getId();
+        
+        Float getScore();
+    }
 }
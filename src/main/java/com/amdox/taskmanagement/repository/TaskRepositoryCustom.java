@@ -0,0 +1,32 @@
+package com.amdox.taskmanagement.repository;
+
+import com.amdox.taskmanagement.dto.TaskFilter;
+import com.amdox.taskmanagement.dto.TaskResponse;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+    List<TaskResponse> findPage(TaskFilter filter, LocalDateTime afterDeadline, Long afterId, int limit);
+    
+    Stream<TaskResponse> streamResponses(TaskFilter filter, int fetchSize);
+    
+    /**
+     * Tasks selected by {@code ids} (or by {@code filter} when ids is null) that {@code modifierId}
+     * may modify: ones they created, plus ones assigned to them when {@code assigneeMayModify}.
+     * A null modifierId means no ownership restriction.
+     */
+    List<BulkTarget> findBulkTargets(Collection<Long> ids, TaskFilter filter, Long modifierId,
+                                     boolean assigneeMayModify, int limit);
+    
+    int bulkUpdate(Collection<Long> ids, Task.Status status, Task.Priority priority, User assignee,
+                   LocalDateTime now);
+    
+    record BulkTarget(Long id, String title, Task.Status status, Task.Priority priority, Long assignedToId,
+                      Long createdById, Long version) {
+    }
+}
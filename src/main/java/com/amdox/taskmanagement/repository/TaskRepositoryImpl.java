@@ -0,0 +1,206 @@
+package com.amdox.taskmanagement.repository;
+
+import com.amdox.taskmanagement.dto.TaskFilter;
+import com.amdox.taskmanagement.dto.TaskResponse;
+import com.amdox.taskmanagement.entity.Tag;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<TaskResponse> findPage(TaskFilter filter, LocalDateTime afterDeadline, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> assignedTo = task.join("assignedTo", JoinType.LEFT);
+        Join<Task, User> createdBy = task.join("createdBy", JoinType.LEFT);
+        
+        List<Predicate> predicates = filterPredicates(cb, query, task, filter);
+        Path<Long> id = task.get("id");
+        Path<LocalDateTime> deadline = task.get("deadline");
+        
+        if (filter.getSort() == TaskFilter.SortOrder.DEADLINE) {
+            // Keyset on (deadline, id): strictly after the last row of the previous page
+            if (afterDeadline != null && afterId != null) {
+                predicates.add(cb.or(
+                        cb.greaterThan(deadline, afterDeadline),
+                        cb.and(cb.equal(deadline, afterDeadline), cb.greaterThan(id, afterId))));
+            }
+            query.orderBy(cb.asc(deadline), cb.asc(id));
+        } else {
+            if (afterId != null) {
+                predicates.add(cb.greaterThan(id, afterId));
+            }
+            query.orderBy(cb.asc(id));
+        }
+        
+        query.select(responseSelection(cb, task, assignedTo, createdBy))
+                .where(predicates.toArray(new Predicate[0]));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    @Override
+    public Stream<TaskResponse> streamResponses(TaskFilter filter, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResponse> query = cb.createQuery(TaskResponse.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> assignedTo = task.join("assignedTo", JoinType.LEFT);
+        Join<Task, User> createdBy = task.join("createdBy", JoinType.LEFT);
+        
+        query.select(responseSelection(cb, task, assignedTo, createdBy))
+                .where(filterPredicates(cb, query, task, filter).toArray(new Predicate[0]))
+                .orderBy(cb.asc(task.get("id")));
+        // A server-side cursor: rows arrive fetchSize at a time instead of as one materialized list
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+    
+    @Override
+    public List<BulkTarget> findBulkTargets(Collection<Long> ids, TaskFilter filter, Long modifierId,
+                                            boolean assigneeMayModify, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BulkTarget> query = cb.createQuery(BulkTarget.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> assignedTo = task.join("assignedTo", JoinType.LEFT);
+        Join<Task, User> createdBy = task.join("createdBy", JoinType.LEFT);
+        
+        List<Predicate> predicates = ids != null
+                ? new ArrayList<>(List.of(task.get("id").in(ids)))
+                : filterPredicates(cb, query, task, filter);
+        // The canModifyTask rules, evaluated for the whole set in the database
+        if (modifierId != null) {
+            Predicate owner = cb.equal(createdBy.get("id"), modifierId);
+            predicates.add(assigneeMayModify
+                    ? cb.or(owner, cb.equal(assignedTo.get("id"), modifierId))
+                    : owner);
+        }
+        
+        query.select(cb.construct(BulkTarget.class,
+                        task.get("id"),
+                        task.get("title"),
+                        task.get("status"),
+                        task.get("priority"),
+                        assignedTo.get("id"),
+                        createdBy.get("id"),
+                        task.get("version")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(task.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    @Override
+    public int bulkUpdate(Collection<Long> ids, Task.Status status, Task.Priority priority, User assignee,
+                          LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+        
+        if (status != null) {
+            if (status == Task.Status.COMPLETED) {
+                // SET expressions see the old row, so tasks that were already completed keep their timestamp
+                update.set(task.<LocalDateTime>get("completedAt"), cb.<LocalDateTime>selectCase()
+                        .when(cb.equal(task.get("status"), Task.Status.COMPLETED), task.<LocalDateTime>get("completedAt"))
+                        .otherwise(now));
+            }
+            update.set(task.<Task.Status>get("status"), status);
+        }
+        if (priority != null) {
+            update.set(task.<Task.Priority>get("priority"), priority);
+        }
+        if (assignee != null) {
+            update.set(task.<User>get("assignedTo"), assignee);
+        }
+        // Bulk statements bypass @UpdateTimestamp and @Version, so maintain both here
+        update.set(task.<LocalDateTime>get("updatedAt"), now);
+        update.set(task.<Long>get("version"), cb.sum(task.<Long>get("version"), 1L));
+        update.where(task.get("id").in(ids));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+    
+    // Project straight into the DTO so no entity or lazy association is ever hydrated
+    private CompoundSelection<TaskResponse> responseSelection(CriteriaBuilder cb, Root<Task> task,
+                                                              Join<Task, User> assignedTo, Join<Task, User> createdBy) {
+        return cb.construct(TaskResponse.class,
+                task.get("id"),
+                task.get("title"),
+                task.get("description"),
+                task.get("priority"),
+                task.get("status"),
+                task.get("deadline"),
+                task.get("category"),
+                task.get("tags"),
+                assignedTo.get("id"),
+                assignedTo.get("fullName"),
+                createdBy.get("id"),
+                createdBy.get("fullName"),
+                task.get("createdAt"),
+                task.get("updatedAt"),
+                task.get("completedAt"),
+                task.get("version"));
+    }
+    
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, AbstractQuery<?> query, Root<Task> task,
+                                             TaskFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(task.get("status"), filter.getStatus()));
+        }
+        if (filter.getPriority() != null) {
+            predicates.add(cb.equal(task.get("priority"), filter.getPriority()));
+        }
+        if (filter.getCategory() != null && !filter.getCategory().isBlank()) {
+            predicates.add(cb.equal(task.get("category"), filter.getCategory()));
+        }
+        if (filter.getAssignedToId() != null) {
+            predicates.add(cb.equal(task.get("assignedTo").get("id"), filter.getAssignedToId()));
+        }
+        if (filter.getTag() != null) {
+            for (String tag : filter.getTag()) {
+                // EXISTS per tag keeps the row set distinct and lets the planner start from task_tags
+                Subquery<Integer> tagged = query.subquery(Integer.class);
+                Root<Task> correlated = tagged.correlate(task);
+                Join<Task, Tag> tagJoin = correlated.join("tagSet");
+                tagged.select(cb.literal(1))
+                        .where(cb.equal(tagJoin.get("name"), Tag.normalize(tag)));
+                predicates.add(cb.exists(tagged));
+            }
+        }
+        if (filter.getDeadlineFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.get("deadline"), filter.getDeadlineFrom()));
+        }
+        if (filter.getDeadlineTo() != null) {
+            predicates.add(cb.lessThan(task.get("deadline"), filter.getDeadlineTo()));
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,9 @@
+package com.amdox.taskmanagement.repository;
+
+import com.amdox.taskmanagement.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    Optional<User> findByUsername(String username);
+}
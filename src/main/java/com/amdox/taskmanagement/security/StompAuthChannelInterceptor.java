@@ -0,0 +1,103 @@
+package com.amdox.taskmanagement.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Authenticates STOMP sessions from the JWT sent in the CONNECT frame so that
+ * per-user destinations (/user/queue/...) resolve to the logged-in username.
+ * <p>
+ * /ws is open at the HTTP layer, so this is the only gate on the socket: a CONNECT without
+ * a valid token is refused, clients may only subscribe to their own /user destinations or an
+ * explicitly allowed topic, and may only SEND to application (/app) destinations. That keeps
+ * them away from broker-internal destinations such as the relay's cross-node broadcasts.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+    
+    private static final String USER_PREFIX = "/user/";
+    private static final String APPLICATION_PREFIX = "/app/";
+    
+    private final JwtUtil jwtUtil;
+    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    
+    // Broadcast topics any authenticated session may subscribe to, e.g. /topic/announcements
+    @Value("${websocket.subscribe.allowed-topics:}")
+    private Set<String> allowedTopics;
+    
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        
+        switch (accessor.getCommand()) {
+            case CONNECT -> authenticate(accessor);
+            case SUBSCRIBE -> {
+                requireUser(accessor);
+                String destination = accessor.getDestination();
+                if (destination == null || !(destination.startsWith(USER_PREFIX) || allowedTopics.contains(destination))) {
+                    throw new AccessDeniedException("Subscription to " + destination + " is not allowed");
+                }
+            }
+            case SEND -> {
+                requireUser(accessor);
+                String destination = accessor.getDestination();
+                if (destination == null || !destination.startsWith(APPLICATION_PREFIX)) {
+                    throw new AccessDeniedException("Sending to " + destination + " is not allowed");
+                }
+            }
+            default -> {
+            }
+        }
+        return message;
+    }
+    
+    private void authenticate(StompHeaderAccessor accessor) {
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new BadCredentialsException("Missing bearer token");
+        }
+        
+        Claims claims;
+        try {
+            claims = jwtUtil.extractAllClaims(authHeader.substring(7));
+        } catch (JwtException e) {
+            throw new BadCredentialsException("Invalid bearer token", e);
+        }
+        UserDetails userDetails = principalCache.get(claims.getSubject(), userDetailsService::loadUserByUsername);
+        
+        if (!jwtUtil.validateToken(claims, userDetails)) {
+            throw new BadCredentialsException("Invalid bearer token");
+        }
+        accessor.setUser(new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        ));
+    }
+    
+    private void requireUser(StompHeaderAccessor accessor) {
+        if (accessor.getUser() == null) {
+            throw new AccessDeniedException("Not authenticated");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.amdox.taskmanagement.security;
+
+import com.amdox.taskmanagement.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * The authenticated user as resolved once by the security layer. Controllers receive it
+ * through {@code @AuthenticationPrincipal}, so services never need to look the user up again.
+ */
+@Getter
+@AllArgsConstructor
+public class UserPrincipal implements UserDetails {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final String email;
+    private final String fullName;
+    private final User.Role role;
+    private final boolean enabled;
+    
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getEmail(),
+                user.getFullName(),
+                user.getRole(),
+                user.isEnabled()
+        );
+    }
+    
+    public boolean isAdmin() {
+        return role == User.Role.ADMIN;
+    }
+    
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.singletonList(new SimpleGrantedAuthority(role.name()));
+    }
+    
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+    
+    @Override
+    public boolean isAccountNonLocked() {
+        return enabled;
+    }
+    
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+}
@@ -0,0 +1,257 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.dto.AttachmentResponse;
+import com.amdox.taskmanagement.entity.Attachment;
+import com.amdox.taskmanagement.repository.AttachmentRepository;
+import com.amdox.taskmanagement.repository.TaskRepository;
+import com.amdox.taskmanagement.repository.UserRepository;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Attachments in a content-addressed file store: each distinct content is kept once, under
+ * {@code <storage-dir>/ab/cd/<sha256>}, and shared by every attachment that uploads it.
+ * Uploads are streamed through the digest to disk, so file size never reaches the heap.
+ * <p>
+ * The store is shared by every node, so storing and releasing a content are serialized by a
+ * PostgreSQL advisory lock on its hash rather than by anything in this JVM. The lock lives in
+ * a short transaction of its own that only moves the finished file into place (a rename) and
+ * inserts the row, or counts the references and removes the file; the transfer runs outside it.
+ */
+@Service
+@Slf4j
+public class AttachmentService {
+    
+    private final AttachmentRepository attachmentRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Holds the content lock; always a new transaction, as releases also run after a caller's commit
+    private final TransactionTemplate contentTransaction;
+    private final Path storageDir;
+    private final Path tempDir;
+    
+    public AttachmentService(AttachmentRepository attachmentRepository,
+                             TaskRepository taskRepository,
+                             UserRepository userRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${attachments.storage-dir:uploads}") String storageDir) {
+        this.attachmentRepository = attachmentRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.contentTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.contentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.storageDir = Paths.get(storageDir).toAbsolutePath().normalize();
+        // Inside the store, so finished uploads are moved into place atomically
+        this.tempDir = this.storageDir.resolve("tmp");
+    }
+    
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(tempDir);
+    }
+    
+    public AttachmentResponse upload(Long taskId, MultipartFile file, UserPrincipal currentUser) {
+        if (file.isEmpty()) {
+            throw new RuntimeException("File is empty");
+        }
+        if (!taskRepository.existsById(taskId)) {
+            throw new RuntimeException("Task not found");
+        }
+        
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(tempDir, "upload-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            
+            Attachment attachment = new Attachment();
+            attachment.setFileName(fileName(file));
+            attachment.setFilePath(contentPath(sha256));
+            attachment.setFileType(file.getContentType());
+            attachment.setFileSize(size);
+            attachment.setSha256(sha256);
+            
+            Path upload = temp;
+            Attachment saved;
+            // Only the move and the row insert hold a connection, not the transfer above
+            try {
+                saved = contentTransaction.execute(status -> {
+                    attachmentRepository.lockContent(sha256);
+                    storeContent(upload, sha256);
+                    attachment.setTask(taskRepository.getReferenceById(taskId));
+                    attachment.setUploadedBy(userRepository.getReferenceById(currentUser.getId()));
+                    return attachmentRepository.save(attachment);
+                });
+            } catch (RuntimeException e) {
+                // Rolled back: don't leave the content behind if nothing else uses it
+                releaseContent(List.of(sha256));
+                throw e;
+            }
+            return mapToResponse(saved, taskId, currentUser);
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException("Failed to store file: " + e.getCause().getMessage(), e.getCause());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file: " + e.getMessage(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AttachmentResponse> getAttachmentsByTask(Long taskId) {
+        return attachmentRepository.findResponsesByTaskId(taskId);
+    }
+    
+    @Transactional(readOnly = true)
+    public StoredFile getFile(Long attachmentId) throws IOException {
+        Attachment attachment = attachmentRepository.findById(attachmentId)
+                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+        Path path = storageDir.resolve(attachment.getFilePath());
+        if (!Files.isRegularFile(path)) {
+            throw new RuntimeException("Attachment file not found");
+        }
+        return new StoredFile(path, attachment.getFileName(), attachment.getFileType(), Files.size(path),
+                attachment.getSha256());
+    }
+    
+    public void deleteAttachment(Long attachmentId, UserPrincipal currentUser) {
+        Attachment attachment = attachmentRepository.findById(attachmentId)
+                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+        
+        if (!attachment.getUploadedBy().getId().equals(currentUser.getId()) && !currentUser.isAdmin()) {
+            throw new RuntimeException("You don't have permission to delete this attachment");
+        }
+        
+        transactionTemplate.executeWithoutResult(status -> attachmentRepository.deleteById(attachmentId));
+        releaseContent(List.of(attachment.getSha256()));
+    }
+    
+    /**
+     * Removes stored content no attachment refers to any more, once the current transaction
+     * (which deleted the referring rows) has committed.
+     */
+    public void releaseContentAfterCommit(Collection<String> sha256s) {
+        List<String> hashes = sha256s.stream().filter(Objects::nonNull).distinct().toList();
+        if (hashes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            releaseContent(hashes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseContent(hashes);
+            }
+        });
+    }
+    
+    // Pre-hash rows keep their original files, which may be shared by other rows
+    private void releaseContent(Collection<String> sha256s) {
+        for (String sha256 : sha256s) {
+            if (sha256 == null) {
+                continue;
+            }
+            try {
+                contentTransaction.executeWithoutResult(status -> {
+                    attachmentRepository.lockContent(sha256);
+                    if (attachmentRepository.countBySha256(sha256) == 0) {
+                        deleteQuietly(storageDir.resolve(contentPath(sha256)));
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Could not check references to attachment content {}: {}", sha256, e.getMessage());
+            }
+        }
+    }
+    
+    // Callers hold the content lock
+    private void storeContent(Path upload, String sha256) {
+        Path target = storageDir.resolve(contentPath(sha256));
+        try {
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                log.debug("Attachment content {} already stored, reusing it", sha256);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String contentPath(String sha256) {
+        return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+    }
+    
+    private static String fileName(MultipartFile file) {
+        String name = file.getOriginalFilename();
+        if (name == null || name.isBlank()) {
+            return "file";
+        }
+        // Browsers on Windows may send the full client path
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        return name.length() > 255 ? name.substring(name.length() - 255) : name;
+    }
+    
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+    
+    private AttachmentResponse mapToResponse(Attachment attachment, Long taskId, UserPrincipal uploader) {
+        AttachmentResponse response = new AttachmentResponse();
+        response.setId(attachment.getId());
+        response.setFileName(attachment.getFileName());
+        response.setFileType(attachment.getFileType());
+        response.setFileSize(attachment.getFileSize());
+        response.setSha256(attachment.getSha256());
+        response.setTaskId(taskId);
+        response.setUploadedById(uploader.getId());
+        response.setUploadedByName(uploader.getFullName());
+        response.setUploadedAt(attachment.getUploadedAt());
+        return response;
+    }
+    
+    public record StoredFile(Path path, String fileName, String contentType, long size, String sha256) {
+    }
+}
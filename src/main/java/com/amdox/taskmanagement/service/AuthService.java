@@ -6,11 +6,11 @@ import com.amdox.taskmanagement.dto.RegisterRequest;
 import com.amdox.taskmanagement.entity.User;
 import com.amdox.taskmanagement.repository.UserRepository;
 import com.amdox.taskmanagement.security.JwtUtil;
+import com.amdox.taskmanagement.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,7 +23,6 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -45,28 +44,25 @@ public class AuthService {
         
         userRepository.save(user);
         
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-        String token = jwtUtil.generateToken(userDetails);
+        String token = jwtUtil.generateToken(UserPrincipal.from(user));
         
         return new AuthResponse(token, user.getUsername(), user.getEmail(), 
                 user.getFullName(), user.getRole().name());
     }
     
     public AuthResponse login(LoginRequest request) {
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getUsername(),
                         request.getPassword()
                 )
         );
         
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The provider already loaded the user while checking the password
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        String token = jwtUtil.generateToken(principal);
         
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-        String token = jwtUtil.generateToken(userDetails);
-        
-        return new AuthResponse(token, user.getUsername(), user.getEmail(), 
-                user.getFullName(), user.getRole().name());
+        return new AuthResponse(token, principal.getUsername(), principal.getEmail(), 
+                principal.getFullName(), principal.getRole().name());
     }
 }
@@ -2,20 +2,23 @@ package com.amdox.taskmanagement.service;
 
 import com.amdox.taskmanagement.dto.CommentRequest;
 import com.amdox.taskmanagement.dto.CommentResponse;
+import com.amdox.taskmanagement.dto.PageResponse;
 import com.amdox.taskmanagement.entity.Comment;
 import com.amdox.taskmanagement.entity.Notification;
 import com.amdox.taskmanagement.entity.Task;
 import com.amdox.taskmanagement.entity.User;
 import com.amdox.taskmanagement.repository.CommentRepository;
-import com.amdox.taskmanagement.repository.NotificationRepository;
 import com.amdox.taskmanagement.repository.TaskRepository;
 import com.amdox.taskmanagement.repository.UserRepository;
+import com.amdox.taskmanagement.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,12 +27,14 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
-    private final NotificationRepository notificationRepository;
+    private final OutboxService outboxService;
+    
+    @Value("${comments.feed.since-overlap-seconds:30}")
+    private long sinceOverlapSeconds;
     
     @Transactional
-    public CommentResponse addComment(CommentRequest request, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public CommentResponse addComment(CommentRequest request, UserPrincipal currentUser) {
+        User user = userRepository.getReferenceById(currentUser.getId());
         
         Task task = taskRepository.findById(request.getTaskId())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
@@ -39,37 +44,104 @@ public class CommentService {
         comment.setTask(task);
         comment.setUser(user);
         
-        Comment savedComment = commentRepository.save(comment);
+        // Pooled sequence ids defer the INSERT; flush so the response carries createdAt
+        Comment savedComment = commentRepository.saveAndFlush(comment);
         
         // Notify task creator and assignee
-        if (task.getCreatedBy() != null && !task.getCreatedBy().getId().equals(user.getId())) {
+        if (task.getCreatedBy() != null && !task.getCreatedBy().getId().equals(currentUser.getId())) {
             createNotification(task.getCreatedBy(), task, 
-                    user.getFullName() + " commented on: " + task.getTitle());
+                    currentUser.getFullName() + " commented on: " + task.getTitle());
         }
         
-        if (task.getAssignedTo() != null && !task.getAssignedTo().getId().equals(user.getId())) {
+        if (task.getAssignedTo() != null && !task.getAssignedTo().getId().equals(currentUser.getId())) {
             createNotification(task.getAssignedTo(), task, 
-                    user.getFullName() + " commented on: " + task.getTitle());
+                    currentUser.getFullName() + " commented on: " + task.getTitle());
+        }
+        
+        return mapToResponse(savedComment, currentUser);
+    }
+    
+    /**
+     * Oldest-first comment feed. The returned cursor always points after the last
+     * comment seen, so clients can page forward with it and later pass it back as
+     * {@code since} to fetch only comments added in the meantime.
+     * <p>
+     * createdAt is stamped by the inserting node before commit, so a comment can become
+     * visible after a poll has already moved past its position. A {@code since} poll
+     * therefore re-reads the last {@code comments.feed.since-overlap-seconds} behind the
+     * cursor; clients drop comments whose id they already have.
+     * <p>
+     * The overlap window can hold more than a page. Until a {@code since} poll has caught
+     * up, its cursor carries both the scan position and the furthest position seen, and
+     * passed back as either {@code cursor} or {@code since} it continues the scan without
+     * another overlap. The final cursor is never behind the {@code since} it started from,
+     * so the feed neither stalls on a full window nor moves backwards.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<CommentResponse> getCommentsByTask(Long taskId, String cursor, String since, Integer size) {
+        int pageSize = CursorCodec.pageSize(size);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<CommentResponse> comments;
+        // Furthest position a since poll has reached; the returned cursor never falls behind it
+        String[] floor = null;
+        String[] sinceParts = since != null && !since.isBlank() ? CursorCodec.decode(since, 2, 4) : null;
+        if (sinceParts != null && sinceParts.length == 2) {
+            floor = sinceParts;
+            comments = commentRepository.findFeedByTaskIdFrom(
+                    taskId, LocalDateTime.parse(floor[0]).minusSeconds(sinceOverlapSeconds), limit);
+        } else {
+            // A window-scan cursor continues the scan whether it comes back as cursor or as since
+            String[] parts = sinceParts;
+            if (parts == null && cursor != null && !cursor.isBlank()) {
+                parts = CursorCodec.decode(cursor, 2, 4);
+            }
+            if (parts == null) {
+                comments = commentRepository.findFeedByTaskId(taskId, limit);
+            } else {
+                if (parts.length == 4) {
+                    floor = new String[] {parts[2], parts[3]};
+                }
+                comments = commentRepository.findFeedByTaskIdAfter(
+                        taskId, LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]), limit);
+            }
+        }
+        
+        boolean hasMore = comments.size() > pageSize;
+        if (hasMore) {
+            comments = comments.subList(0, pageSize);
         }
         
-        return mapToResponse(savedComment);
+        String nextCursor = cursor;
+        CommentResponse last = comments.isEmpty() ? null : comments.get(comments.size() - 1);
+        if (floor == null) {
+            if (last != null) {
+                nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+            }
+        } else {
+            String[] high = last != null && isAfter(last, floor)
+                    ? new String[] {last.getCreatedAt().toString(), last.getId().toString()}
+                    : floor;
+            // Mid-scan the cursor carries both positions so that neither cursor nor since re-reads the window
+            nextCursor = hasMore
+                    ? CursorCodec.encode(last.getCreatedAt(), last.getId(), high[0], high[1])
+                    : CursorCodec.encode(high[0], high[1]);
+        }
+        return new PageResponse<>(comments, nextCursor, hasMore);
     }
     
-    public List<CommentResponse> getCommentsByTask(Long taskId) {
-        return commentRepository.findByTaskId(taskId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    // Keyset order of the feed: (createdAt, id)
+    private static boolean isAfter(CommentResponse comment, String[] position) {
+        int byTime = comment.getCreatedAt().compareTo(LocalDateTime.parse(position[0]));
+        return byTime > 0 || (byTime == 0 && comment.getId() > Long.parseLong(position[1]));
     }
     
     @Transactional
-    public void deleteComment(Long commentId, String username) {
+    public void deleteComment(Long commentId, UserPrincipal currentUser) {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
         
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        if (!comment.getUser().getId().equals(user.getId()) && user.getRole() != User.Role.ADMIN) {
+        if (!comment.getUser().getId().equals(currentUser.getId()) && !currentUser.isAdmin()) {
             throw new RuntimeException("You don't have permission to delete this comment");
         }
         
@@ -77,21 +149,16 @@ public class CommentService {
     }
     
     private void createNotification(User user, Task task, String message) {
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setTask(task);
-        notification.setMessage(message);
-        notification.setType(Notification.NotificationType.TASK_COMMENT);
-        notificationRepository.save(notification);
+        outboxService.recordNotification(user, task, message, Notification.NotificationType.TASK_COMMENT);
     }
     
-    private CommentResponse mapToResponse(Comment comment) {
+    private CommentResponse mapToResponse(Comment comment, UserPrincipal author) {
         CommentResponse response = new CommentResponse();
         response.setId(comment.getId());
         response.setContent(comment.getContent());
         response.setTaskId(comment.getTask().getId());
-        response.setUserId(comment.getUser().getId());
-        response.setUserName(comment.getUser().getFullName());
+        response.setUserId(author.getId());
+        response.setUserName(author.getFullName());
         response.setCreatedAt(comment.getCreatedAt());
         return response;
     }
@@ -0,0 +1,83 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.dto.DashboardStats;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.repository.DashboardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serves the dashboard from pre-aggregated materialized views, so a request reads a few
+ * hundred summary rows instead of scanning tasks. Numbers lag writes by at most one refresh.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardService {
+    
+    private static final int MAX_DAYS = 365;
+    private static final int MAX_ROWS = 100;
+    
+    private final DashboardRepository dashboardRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Scheduled(fixedDelayString = "${stats.refresh-ms:60000}", initialDelayString = "${stats.refresh-ms:60000}")
+    public void refreshRollups() {
+        long started = System.currentTimeMillis();
+        Boolean refreshed = transactionTemplate.execute(status -> dashboardRepository.refreshRollups());
+        if (Boolean.TRUE.equals(refreshed)) {
+            log.debug("Dashboard rollups refreshed in {} ms", System.currentTimeMillis() - started);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public DashboardStats getDashboard(Integer days, Integer assignees) {
+        DashboardStats stats = new DashboardStats();
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (Task.Status status : Task.Status.values()) {
+            byStatus.put(status.name(), 0L);
+        }
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        for (Task.Priority priority : Task.Priority.values()) {
+            byPriority.put(priority.name(), 0L);
+        }
+        
+        long total = 0;
+        long overdue = 0;
+        LocalDateTime refreshedAt = null;
+        for (Object[] row : dashboardRepository.findTaskCounts()) {
+            long count = (Long) row[3];
+            byStatus.merge((String) row[0], count, Long::sum);
+            byPriority.merge((String) row[1], count, Long::sum);
+            if (Boolean.TRUE.equals(row[2])) {
+                overdue += count;
+            }
+            total += count;
+            refreshedAt = (LocalDateTime) row[4];
+        }
+        
+        stats.setTotalTasks(total);
+        stats.setOverdueTasks(overdue);
+        stats.setByStatus(byStatus);
+        stats.setByPriority(byPriority);
+        stats.setByCategory(dashboardRepository.findCategoryCounts(MAX_ROWS));
+        stats.setWorkload(dashboardRepository.findWorkload(clamp(assignees, 20, MAX_ROWS)));
+        int window = clamp(days, 30, MAX_DAYS);
+        stats.setThroughput(dashboardRepository.findThroughputSince(LocalDate.now().minusDays(window - 1L)));
+        stats.setRefreshedAt(refreshedAt);
+        return stats;
+    }
+    
+    private static int clamp(Integer value, int defaultValue, int max) {
+        return value == null || value <= 0 ? defaultValue : Math.min(value, max);
+    }
+}
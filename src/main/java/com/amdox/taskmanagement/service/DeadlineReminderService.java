@@ -0,0 +1,131 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.entity.Notification;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Deadline reminder engine: walks the assignees of due tasks in keyset-ordered chunks and, per
+ * chunk, claims their tasks by stamping reminder_sent_at and records one digest per assignee
+ * through the outbox, all in one transaction. Chunks run in parallel; claimed tasks are never
+ * picked up again, so an interrupted run resumes where it stopped on the next run.
+ */
+@Service
+@Slf4j
+public class DeadlineReminderService {
+    
+    private final TaskRepository taskRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    
+    @Value("${reminders.window-hours:24}")
+    private int windowHours;
+    
+    @Value("${reminders.users-per-chunk:200}")
+    private int usersPerChunk;
+    
+    public DeadlineReminderService(TaskRepository taskRepository,
+                                   OutboxService outboxService,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${reminders.parallelism:4}") int parallelism) {
+        this.taskRepository = taskRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "deadline-reminder-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+    
+    public RunSummary sendReminders() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plusHours(windowHours);
+        
+        List<Future<RunSummary>> chunks = new ArrayList<>();
+        Long afterUserId = 0L;
+        List<Long> assigneeIds;
+        do {
+            assigneeIds = taskRepository.findAssigneesDueForReminder(now, until, Task.Status.COMPLETED,
+                    afterUserId, PageRequest.of(0, usersPerChunk));
+            if (!assigneeIds.isEmpty()) {
+                List<Long> chunk = assigneeIds;
+                chunks.add(workers.submit(() -> transactionTemplate.execute(status -> remindChunk(chunk, now, until))));
+                afterUserId = assigneeIds.get(assigneeIds.size() - 1);
+            }
+        } while (assigneeIds.size() == usersPerChunk);
+        
+        int recipients = 0;
+        int tasks = 0;
+        for (Future<RunSummary> chunk : chunks) {
+            try {
+                RunSummary summary = chunk.get();
+                recipients += summary.recipients();
+                tasks += summary.tasks();
+            } catch (ExecutionException e) {
+                // The chunk rolled back, so its tasks are still unclaimed for the next run
+                log.error("Deadline reminder chunk failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return new RunSummary(recipients, tasks);
+    }
+    
+    private RunSummary remindChunk(List<Long> assigneeIds, LocalDateTime now, LocalDateTime until) {
+        // Claim before notifying: tasks stamped here are invisible to any other run
+        List<Long> claimed = taskRepository.claimDueReminders(assigneeIds, now, until);
+        if (claimed.isEmpty()) {
+            return new RunSummary(0, 0);
+        }
+        
+        Map<Long, List<Task>> tasksByAssignee = taskRepository.findWithAssigneeByIdIn(claimed).stream()
+                .collect(Collectors.groupingBy(task -> task.getAssignedTo().getId()));
+        tasksByAssignee.values().forEach(this::recordReminder);
+        return new RunSummary(tasksByAssignee.size(), claimed.size());
+    }
+    
+    private void recordReminder(List<Task> tasks) {
+        User assignee = tasks.get(0).getAssignedTo();
+        String message;
+        if (tasks.size() == 1) {
+            Task task = tasks.get(0);
+            message = "Task due soon: " + task.getTitle() + " (deadline " + task.getDeadline() + ")";
+        } else {
+            message = OutboxService.digestMessage(tasks.size() + " tasks due within " + windowHours + " hours",
+                    tasks.stream().map(Task::getTitle).toList());
+        }
+        outboxService.recordNotification(assignee, tasks.size() == 1 ? tasks.get(0) : null, message,
+                Notification.NotificationType.DEADLINE_REMINDER);
+        outboxService.recordDigestEmail(assignee, message);
+    }
+    
+    public record RunSummary(int recipients, int tasks) {
+    }
+}
@@ -0,0 +1,231 @@
+package com.amdox.taskmanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Outbound mail pipeline: callers enqueue into a bounded queue and return immediately,
+ * while a dedicated worker drains the queue in batches over a single SMTP connection
+ * and retries failed messages with exponential backoff. Callers that must not lose a
+ * message pass a {@link DeliveryListener} and keep their own record until it reports
+ * the outcome.
+ */
+@Service
+@Slf4j
+public class MailDispatcher {
+    
+    private final JavaMailSender mailSender;
+    private final BlockingQueue<QueuedMail> queue;
+    private final ExecutorService worker;
+    
+    @Value("${mail.dispatch.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${mail.dispatch.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${mail.dispatch.initial-backoff-ms:500}")
+    private long initialBackoffMs;
+    
+    @Value("${mail.dispatch.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+    
+    @Value("${mail.dispatch.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+    
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+    
+    private volatile boolean running = true;
+    
+    public MailDispatcher(JavaMailSender mailSender,
+                          MeterRegistry meterRegistry,
+                          @Value("${mail.dispatch.queue-capacity:10000}") int queueCapacity) {
+        this.mailSender = mailSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        Gauge.builder("mail.queue.depth", queue, BlockingQueue::size)
+                .description("Messages waiting in the outbound mail queue")
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("mail.send.latency")
+                .description("Time spent sending one batch over SMTP")
+                .register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("mail.sent");
+        this.failedCounter = meterRegistry.counter("mail.failed");
+        this.rejectedCounter = meterRegistry.counter("mail.rejected");
+    }
+    
+    @PostConstruct
+    public void start() {
+        worker.submit(this::drainLoop);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        // Let the worker drain what is already queued before interrupting it
+        running = false;
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                worker.shutdownNow();
+                worker.awaitTermination(1, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            worker.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Mail dispatcher stopped with {} undelivered messages", queue.size());
+        }
+    }
+    
+    /**
+     * Queues a message and reports its outcome to the listener: {@code rejected} right away
+     * when the queue is full, otherwise {@code delivered} or {@code failed} from the worker
+     * thread. A message still queued when the application stops gets no callback.
+     */
+    public boolean enqueue(SimpleMailMessage message, DeliveryListener listener) {
+        if (queue.offer(new QueuedMail(message, listener))) {
+            return true;
+        }
+        rejectedCounter.increment();
+        log.warn("Mail queue full, rejecting message to: {}", String.join(",", message.getTo()));
+        notify(listener, DeliveryListener::rejected);
+        return false;
+    }
+    
+    private void drainLoop() {
+        List<QueuedMail> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedMail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in mail dispatcher", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void sendWithRetry(List<QueuedMail> batch) throws InterruptedException {
+        List<QueuedMail> pending = new ArrayList<>(batch);
+        long backoff = initialBackoffMs;
+        
+        for (int attempt = 1; attempt <= maxAttempts && !pending.isEmpty(); attempt++) {
+            if (attempt > 1) {
+                TimeUnit.MILLISECONDS.sleep(backoff);
+                backoff = Math.min(backoff * 2, maxBackoffMs);
+            }
+            
+            int attempted = pending.size();
+            try {
+                // JavaMailSender sends a varargs batch over one connection
+                SimpleMailMessage[] messages = pending.stream()
+                        .map(QueuedMail::message)
+                        .toArray(SimpleMailMessage[]::new);
+                sendTimer.record(() -> mailSender.send(messages));
+                sentCounter.increment(attempted);
+                pending.forEach(queued -> notify(queued.listener(), DeliveryListener::delivered));
+                pending.clear();
+            } catch (MailSendException e) {
+                List<QueuedMail> failed = failedMessages(e, pending);
+                sentCounter.increment(attempted - failed.size());
+                for (QueuedMail queued : pending) {
+                    if (!failed.contains(queued)) {
+                        notify(queued.listener(), DeliveryListener::delivered);
+                    }
+                }
+                pending.retainAll(failed);
+                log.warn("Mail batch attempt {}/{} failed for {} message(s): {}",
+                        attempt, maxAttempts, pending.size(), e.getMessage());
+            } catch (MailException e) {
+                log.warn("Mail batch attempt {}/{} failed for {} message(s): {}",
+                        attempt, maxAttempts, pending.size(), e.getMessage());
+            }
+        }
+        
+        if (!pending.isEmpty()) {
+            failedCounter.increment(pending.size());
+            for (QueuedMail queued : pending) {
+                log.error("Giving up on email to: {}", String.join(",", queued.message().getTo()));
+                notify(queued.listener(), DeliveryListener::failed);
+            }
+        }
+    }
+    
+    private List<QueuedMail> failedMessages(MailSendException e, List<QueuedMail> pending) {
+        if (e.getFailedMessages().isEmpty()) {
+            // Connection-level failure: nothing was sent
+            return new ArrayList<>(pending);
+        }
+        List<QueuedMail> failed = new ArrayList<>();
+        for (QueuedMail queued : pending) {
+            if (e.getFailedMessages().containsKey(queued.message())) {
+                failed.add(queued);
+            }
+        }
+        return failed;
+    }
+    
+    // A failing listener must not stop the outcome reaching the rest of the batch
+    private void notify(DeliveryListener listener, Consumer<DeliveryListener> callback) {
+        try {
+            callback.accept(listener);
+        } catch (Exception e) {
+            log.error("Mail delivery listener failed", e);
+        }
+    }
+    
+    public interface DeliveryListener {
+        
+        default void delivered() {
+        }
+        
+        // The queue was full; nothing was attempted
+        default void rejected() {
+        }
+        
+        // Every send attempt failed
+        default void failed() {
+        }
+    }
+    
+    private record QueuedMail(SimpleMailMessage message, DeliveryListener listener) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.dto.PageResponse;
+import com.amdox.taskmanagement.entity.Notification;
+import com.amdox.taskmanagement.repository.NotificationCounterRepository;
+import com.amdox.taskmanagement.repository.NotificationRepository;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationService {
+    
+    public static final String NOTIFICATIONS_DESTINATION = "/queue/notifications";
+    public static final String UNREAD_COUNT_DESTINATION = "/queue/notifications/count";
+    
+    private final NotificationRepository notificationRepository;
+    private final NotificationCounterRepository notificationCounterRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    
+    @Transactional(readOnly = true)
+    public PageResponse<Map<String, Object>> getNotifications(Long userId, boolean unreadOnly, String cursor, Integer size) {
+        int pageSize = CursorCodec.pageSize(size);
+        Long beforeId = cursor != null && !cursor.isBlank()
+                ? Long.valueOf(CursorCodec.decode(cursor, 1)[0])
+                : Long.MAX_VALUE;
+        
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Notification> notifications = unreadOnly
+                ? notificationRepository.findUnreadPageByUserId(userId, beforeId, limit)
+                : notificationRepository.findPageByUserId(userId, beforeId, limit);
+        
+        boolean hasMore = notifications.size() > pageSize;
+        if (hasMore) {
+            notifications = notifications.subList(0, pageSize);
+        }
+        String nextCursor = hasMore
+                ? CursorCodec.encode(notifications.get(notifications.size() - 1).getId())
+                : null;
+        
+        List<Map<String, Object>> items = notifications.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+        return new PageResponse<>(items, nextCursor, hasMore);
+    }
+    
+    /**
+     * Moves (or deletes, when archiving is off) one batch of read notifications created
+     * before the cutoff. Unread rows are never touched, so the unread counters stay valid.
+     */
+    @Transactional
+    public int retainReadNotifications(LocalDateTime cutoff, int batchSize, boolean archive) {
+        return archive
+                ? notificationRepository.archiveReadBefore(cutoff, batchSize)
+                : notificationRepository.purgeReadBefore(cutoff, batchSize);
+    }
+    
+    /**
+     * Reads the user's counter row, a primary-key lookup. It is not cached on the node: every
+     * node changes the counters, and a local cache would keep serving a count another node
+     * had already changed.
+     */
+    public long getUnreadCount(Long userId) {
+        return notificationCounterRepository.findUnreadCount(userId).orElse(0L);
+    }
+    
+    /**
+     * Adds freshly inserted (unread) notifications to their recipients' counters.
+     * Must run in the transaction that inserted them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void countNewNotifications(List<Notification> notifications) {
+        // Counter rows are locked in user id order, like everywhere else, so writers cannot deadlock
+        Map<Long, Long> perUser = notifications.stream()
+                .collect(Collectors.groupingBy(n -> n.getUser().getId(), TreeMap::new, Collectors.counting()));
+        perUser.forEach(notificationCounterRepository::addUnread);
+    }
+    
+    @Transactional
+    public Map<String, Object> markAsRead(Long notificationId, UserPrincipal user) {
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notification not found"));
+        
+        if (!notification.getUser().getId().equals(user.getId())) {
+            throw new RuntimeException("You don't have permission to mark this notification as read");
+        }
+        
+        Map<String, Object> response = mapToResponse(notification);
+        if (!notification.isRead()) {
+            LocalDateTime readAt = LocalDateTime.now();
+            notificationCounterRepository.lock(user.getId());
+            // Concurrent calls for the same notification: only the one whose UPDATE matched decrements
+            if (notificationRepository.markAsRead(notificationId, readAt) == 1) {
+                notificationCounterRepository.addUnread(user.getId(), -1);
+                response.put("readAt", readAt);
+                afterCommit(() -> pushUnreadCount(user.getId(), user.getUsername()));
+            }
+            response.put("isRead", true);
+        }
+        return response;
+    }
+    
+    @Transactional
+    public int markAllAsRead(UserPrincipal user) {
+        // Under the counter lock the reset cannot swallow a concurrent increment: notifications
+        // committed before it are marked read below, later ones are counted after the reset
+        notificationCounterRepository.lock(user.getId());
+        // Single set-based UPDATE instead of loading and saving every unread row
+        int updated = notificationRepository.markAllAsRead(user.getId(), LocalDateTime.now());
+        notificationCounterRepository.resetUnread(user.getId());
+        afterCommit(() -> pushUnreadCount(user.getUsername(), 0));
+        return updated;
+    }
+    
+    /**
+     * Repairs the counters of the next batch of users after {@code afterUserId}, holding
+     * their counter locks while recounting.
+     */
+    @Transactional
+    public ReconcileBatch reconcileUnreadCounters(long afterUserId, int batchSize) {
+        List<Long> userIds = notificationCounterRepository.lockBatchAfter(afterUserId, batchSize);
+        if (userIds.isEmpty()) {
+            return new ReconcileBatch(0, null, 0);
+        }
+        int corrected = notificationCounterRepository.reconcile(userIds);
+        return new ReconcileBatch(userIds.size(), Collections.max(userIds), corrected);
+    }
+    
+    /**
+     * Pushes freshly committed notifications to their recipients, followed by one
+     * unread-count update per recipient.
+     */
+    public void push(List<Notification> notifications) {
+        Map<Long, String> recipients = new LinkedHashMap<>();
+        for (Notification notification : notifications) {
+            String username = notification.getUser().getUsername();
+            recipients.put(notification.getUser().getId(), username);
+            send(username, NOTIFICATIONS_DESTINATION, mapToResponse(notification));
+        }
+        recipients.forEach(this::pushUnreadCount);
+    }
+    
+    public void pushUnreadCount(Long userId, String username) {
+        pushUnreadCount(username, getUnreadCount(userId));
+    }
+    
+    public void pushUnreadCount(String username, long count) {
+        Map<String, Long> payload = new HashMap<>();
+        payload.put("count", count);
+        send(username, UNREAD_COUNT_DESTINATION, payload);
+    }
+    
+    public Map<String, Object> mapToResponse(Notification notification) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", notification.getId());
+        map.put("message", notification.getMessage());
+        map.put("type", notification.getType().name());
+        map.put("isRead", notification.isRead());
+        map.put("createdAt", notification.getCreatedAt());
+        map.put("readAt", notification.getReadAt());
+        
+        if (notification.getTask() != null) {
+            map.put("taskId", notification.getTask().getId());
+            map.put("taskTitle", notification.getTask().getTitle());
+        }
+        
+        return map;
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    public record ReconcileBatch(int users, Long lastUserId, int corrected) {
+    }
+    
+    private void send(String username, String destination, Object payload) {
+        try {
+            messagingTemplate.convertAndSendToUser(username, destination, payload);
+        } catch (MessagingException e) {
+            // Push is best effort; clients can still fetch over REST
+            log.warn("Failed to push to {} for user {}: {}", destination, username, e.getMessage());
+        }
+    }
+}
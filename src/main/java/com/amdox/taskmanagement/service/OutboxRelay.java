@@ -0,0 +1,168 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.entity.Notification;
+import com.amdox.taskmanagement.entity.OutboxEvent;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.repository.NotificationRepository;
+import com.amdox.taskmanagement.repository.OutboxEventRepository;
+import com.amdox.taskmanagement.repository.TaskRepository;
+import com.amdox.taskmanagement.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationRepository notificationRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+    
+    // Must outlast the time an email can sit in the mail queue, or it may be sent twice
+    @Value("${outbox.relay.email-claim-seconds:900}")
+    private long emailClaimSeconds;
+    
+    @Value("${outbox.relay.email-retry-seconds:60}")
+    private long emailRetrySeconds;
+    
+    @Value("${outbox.relay.email-max-attempts:5}")
+    private int emailMaxAttempts;
+    
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        int relayed;
+        do {
+            List<Notification> notifications = new ArrayList<>();
+            List<PendingEmail> emails = new ArrayList<>();
+            Integer count = transactionTemplate.execute(status -> relayBatch(notifications, emails));
+            relayed = count != null ? count : 0;
+            
+            // Push and mail leave only after the batch is committed, so a rolled-back relay never delivers
+            notificationService.push(notifications);
+            for (PendingEmail email : emails) {
+                MailDispatcher.DeliveryListener listener = deliveryListener(email);
+                if (email.task() != null) {
+                    emailService.sendTaskAssignmentEmail(email.toEmail(), email.task(), listener);
+                } else {
+                    emailService.sendTaskDigestEmail(email.toEmail(), email.message(), listener);
+                }
+            }
+        } while (relayed == batchSize);
+    }
+    
+    private int relayBatch(List<Notification> notifications, List<PendingEmail> emails) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(now, PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        Set<Long> taskIds = events.stream()
+                .map(OutboxEvent::getTaskId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Task> tasks = taskRepository.findAllById(taskIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Set<Long> recipientIds = events.stream()
+                .map(OutboxEvent::getUserId)
+                .collect(Collectors.toSet());
+        Map<Long, User> recipients = userRepository.findAllById(recipientIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        // Notifications are done once this transaction commits; emails stay claimed until sent
+        List<OutboxEvent> done = new ArrayList<>();
+        List<Long> claimed = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            User recipient = recipients.get(event.getUserId());
+            if (recipient == null) {
+                done.add(event);
+                continue;
+            }
+            if (event.getType() == OutboxEvent.EventType.NOTIFICATION) {
+                Notification notification = new Notification();
+                notification.setUser(recipient);
+                // The task may have been deleted since the event was recorded
+                notification.setTask(event.getTaskId() != null ? tasks.get(event.getTaskId()) : null);
+                notification.setMessage(event.getMessage());
+                notification.setType(event.getNotificationType());
+                notifications.add(notification);
+                done.add(event);
+            } else if (event.getType() == OutboxEvent.EventType.TASK_ASSIGNMENT_EMAIL) {
+                Task task = tasks.get(event.getTaskId());
+                if (task != null) {
+                    emails.add(new PendingEmail(event.getId(), event.getAttempts(), recipient.getEmail(), task, null));
+                    claimed.add(event.getId());
+                } else {
+                    done.add(event);
+                }
+            } else if (event.getType() == OutboxEvent.EventType.TASK_DIGEST_EMAIL) {
+                emails.add(new PendingEmail(event.getId(), event.getAttempts(), recipient.getEmail(), null, event.getMessage()));
+                claimed.add(event.getId());
+            }
+        }
+        notificationRepository.saveAll(notifications);
+        notificationService.countNewNotifications(notifications);
+        
+        outboxEventRepository.deleteAllInBatch(done);
+        if (!claimed.isEmpty()) {
+            outboxEventRepository.claim(claimed, now.plusSeconds(emailClaimSeconds));
+        }
+        log.debug("Relayed {} outbox events", events.size());
+        return events.size();
+    }
+    
+    /**
+     * Settles a claimed email event from the dispatcher's outcome: a sent message is deleted,
+     * a rejected one is released for the next relay, and a failed one is retried later until
+     * it has failed {@code email-max-attempts} times, after which it is parked with failed_at.
+     */
+    private MailDispatcher.DeliveryListener deliveryListener(PendingEmail email) {
+        return new MailDispatcher.DeliveryListener() {
+            @Override
+            public void delivered() {
+                outboxEventRepository.markDelivered(email.eventId());
+            }
+            
+            @Override
+            public void rejected() {
+                outboxEventRepository.releaseClaim(email.eventId(), LocalDateTime.now().plusSeconds(emailRetrySeconds));
+            }
+            
+            @Override
+            public void failed() {
+                if (email.attempts() + 1 >= emailMaxAttempts) {
+                    log.error("Parking outbox event {} after {} failed deliveries", email.eventId(), email.attempts() + 1);
+                    outboxEventRepository.markFailed(email.eventId(), LocalDateTime.now());
+                } else {
+                    outboxEventRepository.recordFailedAttempt(email.eventId(), LocalDateTime.now().plusSeconds(emailRetrySeconds));
+                }
+            }
+        };
+    }
+    
+    private record PendingEmail(Long eventId, int attempts, String toEmail, Task task, String message) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.entity.Notification;
+import com.amdox.taskmanagement.entity.OutboxEvent;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Records side effects of task changes in the caller's transaction; {@link OutboxRelay}
+ * delivers them once the transaction has committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    
+    private static final int MESSAGE_MAX_LENGTH = 255;
+    
+    private final OutboxEventRepository outboxEventRepository;
+    
+    /**
+     * "heading: A, B and 3 more", listing as many titles as fit the message column.
+     */
+    public static String digestMessage(String heading, List<String> titles) {
+        StringBuilder message = new StringBuilder(heading).append(": ");
+        int listed = 0;
+        for (String title : titles) {
+            String separator = listed == 0 ? "" : ", ";
+            if (message.length() + separator.length() + title.length() > MESSAGE_MAX_LENGTH - 20) {
+                break;
+            }
+            message.append(separator).append(title);
+            listed++;
+        }
+        if (listed < titles.size()) {
+            message.append(" and ").append(titles.size() - listed).append(" more");
+        }
+        return message.toString();
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordNotification(User user, Task task, String message, Notification.NotificationType type) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(OutboxEvent.EventType.NOTIFICATION);
+        event.setUserId(user.getId());
+        event.setTaskId(task != null ? task.getId() : null);
+        event.setMessage(message);
+        event.setNotificationType(type);
+        outboxEventRepository.save(event);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAssignmentEmail(User assignee, Task task) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(OutboxEvent.EventType.TASK_ASSIGNMENT_EMAIL);
+        event.setUserId(assignee.getId());
+        event.setTaskId(task.getId());
+        outboxEventRepository.save(event);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDigestEmail(User user, String message) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(OutboxEvent.EventType.TASK_DIGEST_EMAIL);
+        event.setUserId(user.getId());
+        event.setMessage(message);
+        outboxEventRepository.save(event);
+    }
+}
@@ -1,46 +1,73 @@
 package com.amdox.taskmanagement.service;
 
-import com.amdox.taskmanagement.entity.Task;
-import com.amdox.taskmanagement.repository.TaskRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SchedulerService {
     
-    private final TaskRepository taskRepository;
-    private final EmailService emailService;
+    private final DeadlineReminderService deadlineReminderService;
+    private final NotificationService notificationService;
+    
+    @Value("${notification.retention.days:90}")
+    private int retentionDays;
+    
+    @Value("${notification.retention.batch-size:5000}")
+    private int retentionBatchSize;
+    
+    @Value("${notification.retention.archive:true}")
+    private boolean archiveNotifications;
+    
+    @Value("${notification.counter.reconcile-batch-size:1000}")
+    private int reconcileBatchSize;
     
     // Run every day at 9 AM
-    @Scheduled(cron = "0 0 9 * * *")
+    @Scheduled(cron = "${reminders.cron:0 0 9 * * *}")
     public void sendDeadlineReminders() {
         log.info("Running deadline reminder scheduler...");
         
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime tomorrow = now.plusDays(1);
+        DeadlineReminderService.RunSummary summary = deadlineReminderService.sendReminders();
         
-        // Get tasks due within next 24 hours
-        List<Task> upcomingTasks = taskRepository.findByDeadlineBetween(now, tomorrow);
+        log.info("Deadline reminder scheduler completed. Sent {} reminders covering {} tasks.",
+                summary.recipients(), summary.tasks());
+    }
+    
+    // Moves read notifications past the retention age out of the hot table, one batch per transaction
+    @Scheduled(cron = "${notification.retention.cron:0 0 3 * * *}")
+    public void applyNotificationRetention() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        int batch;
+        do {
+            batch = notificationService.retainReadNotifications(cutoff, retentionBatchSize, archiveNotifications);
+            total += batch;
+        } while (batch == retentionBatchSize);
         
-        for (Task task : upcomingTasks) {
-            if (task.getStatus() != Task.Status.COMPLETED && task.getAssignedTo() != null) {
-                emailService.sendDeadlineReminderEmail(
-                        task.getAssignedTo().getEmail(),
-                        task
-                );
-                log.info("Reminder sent for task: {} to {}", 
-                        task.getTitle(), 
-                        task.getAssignedTo().getEmail());
+        log.info("Notification retention completed. {} {} read notifications older than {} days.",
+                archiveNotifications ? "Archived" : "Purged", total, retentionDays);
+    }
+    
+    // Repairs any drift between the materialized unread counters and the notifications table,
+    // one batch of users (and their counter locks) per transaction
+    @Scheduled(cron = "${notification.counter.reconcile-cron:0 30 * * * *}")
+    public void reconcileUnreadCounters() {
+        long afterUserId = 0;
+        int corrected = 0;
+        NotificationService.ReconcileBatch batch;
+        do {
+            batch = notificationService.reconcileUnreadCounters(afterUserId, reconcileBatchSize);
+            corrected += batch.corrected();
+            if (batch.lastUserId() != null) {
+                afterUserId = batch.lastUserId();
             }
-        }
-        
-        log.info("Deadline reminder scheduler completed. Sent {} reminders.", upcomingTasks.size());
+        } while (batch.users() == reconcileBatchSize);
+        log.info("Unread notification counters reconciled. Corrected {} counters.", corrected);
     }
 }
@@ -0,0 +1,66 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.dto.TagCount;
+import com.amdox.taskmanagement.entity.Tag;
+import com.amdox.taskmanagement.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Serves tag counts and autocomplete from an in-memory, name-ordered snapshot of
+ * tag -> task count, rebuilt periodically from the normalized tag tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TagService {
+    
+    private static final int MAX_LIMIT = 100;
+    private static final Comparator<Map.Entry<String, Long>> MOST_USED_FIRST =
+            Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+    
+    private final TagRepository tagRepository;
+    
+    private volatile NavigableMap<String, Long> index = Collections.emptyNavigableMap();
+    
+    @Scheduled(fixedDelayString = "${tags.index.refresh-ms:30000}")
+    public void refreshIndex() {
+        NavigableMap<String, Long> fresh = new TreeMap<>();
+        for (TagCount tagCount : tagRepository.countTasksPerTag()) {
+            fresh.put(tagCount.getName(), tagCount.getCount());
+        }
+        index = Collections.unmodifiableNavigableMap(fresh);
+        log.debug("Tag index refreshed with {} tags", fresh.size());
+    }
+    
+    public List<TagCount> getTagCounts(Integer limit) {
+        return top(index, limit);
+    }
+    
+    public List<TagCount> autocomplete(String prefix, Integer limit) {
+        String normalized = Tag.normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        // All names sharing the prefix form one contiguous range of the sorted map
+        return top(index.subMap(normalized, true, normalized + Character.MAX_VALUE, false), limit);
+    }
+    
+    private List<TagCount> top(NavigableMap<String, Long> tags, Integer limit) {
+        int size = limit == null || limit <= 0 ? 10 : Math.min(limit, MAX_LIMIT);
+        return tags.entrySet().stream()
+                .sorted(MOST_USED_FIRST)
+                .limit(size)
+                .map(entry -> new TagCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,264 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.dto.TaskFilter;
+import com.amdox.taskmanagement.dto.TaskImportResult;
+import com.amdox.taskmanagement.dto.TaskRequest;
+import com.amdox.taskmanagement.dto.TaskResponse;
+import com.amdox.taskmanagement.entity.Notification;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.repository.TaskRepository;
+import com.amdox.taskmanagement.repository.UserRepository;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams tasks in and out as NDJSON or CSV. Imports are validated row by row and inserted
+ * in chunked transactions; exports are written straight from a database cursor.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskImportExportService {
+    
+    private static final int MAX_REPORTED_ERRORS = 100;
+    
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+    
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final TaskHistoryService taskHistoryService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${tasks.import.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${tasks.export.fetch-size:500}")
+    private int fetchSize;
+    
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+        
+        private final String contentType;
+        private final String extension;
+        
+        public static Format fromContentType(String contentType) {
+            return contentType != null && contentType.toLowerCase().startsWith(CSV.contentType) ? CSV : NDJSON;
+        }
+    }
+    
+    public TaskImportResult importTasks(InputStream in, Format format, boolean notify, UserPrincipal currentUser) {
+        TaskImportResult result = new TaskImportResult();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        int row = 0;
+        
+        try (MappingIterator<TaskRequest> rows = reader(format).readValues(in)) {
+            while (rows.hasNextValue()) {
+                TaskRequest request = rows.nextValue();
+                row++;
+                
+                Set<ConstraintViolation<TaskRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    reject(result, row, violations.stream()
+                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", ")));
+                    continue;
+                }
+                
+                chunk.add(new ImportRow(row, request));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, notify, currentUser.getId(), result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException | RuntimeJsonMappingException e) {
+            // The stream cannot be resynchronised after a malformed row, so stop there
+            String message = e instanceof JsonProcessingException jpe ? jpe.getOriginalMessage() : e.getMessage();
+            reject(result, row + 1, "Malformed row, import stopped: " + message);
+        }
+        
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, notify, currentUser.getId(), result);
+        }
+        
+        log.info("Task import by {}: {} imported, {} failed", currentUser.getUsername(),
+                result.getImported(), result.getFailed());
+        return result;
+    }
+    
+    @Transactional(readOnly = true)
+    public void exportTasks(TaskFilter filter, Format format, OutputStream out) throws IOException {
+        try (Stream<TaskResponse> rows = taskRepository.streamResponses(filter, fetchSize);
+             SequenceWriter writer = writer(format).writeValues(out)) {
+            Iterator<TaskResponse> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
+    }
+    
+    private void importChunk(List<ImportRow> chunk, boolean notify, Long creatorId, TaskImportResult result) {
+        try {
+            List<TaskImportResult.RowError> rejected = transactionTemplate.execute(
+                    status -> insertChunk(chunk, notify, creatorId));
+            result.setImported(result.getImported() + chunk.size() - rejected.size());
+            rejected.forEach(error -> reject(result, error.getRow(), error.getMessage()));
+        } catch (DataAccessException | PersistenceException e) {
+            // The flush here is not exception-translated, so Hibernate errors arrive untranslated too
+            if (chunk.size() == 1) {
+                reject(result, chunk.get(0).row(),
+                        "Rejected by database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            // Retry row by row so only the offending rows are rejected
+            for (ImportRow row : chunk) {
+                importChunk(List.of(row), notify, creatorId, result);
+            }
+        }
+    }
+    
+    private List<TaskImportResult.RowError> insertChunk(List<ImportRow> chunk, boolean notify, Long creatorId) {
+        // One lookup resolves every assignee referenced by the chunk
+        Set<Long> assigneeIds = chunk.stream()
+                .map(row -> row.request().getAssignedToId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> assignees = userRepository.findAllById(assigneeIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        User creator = userRepository.getReferenceById(creatorId);
+        
+        List<TaskImportResult.RowError> rejected = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            TaskRequest request = row.request();
+            User assignee = null;
+            if (request.getAssignedToId() != null) {
+                assignee = assignees.get(request.getAssignedToId());
+                if (assignee == null) {
+                    rejected.add(new TaskImportResult.RowError(row.row(), "Assignee not found"));
+                    continue;
+                }
+            }
+            tasks.add(toTask(request, creator, assignee));
+        }
+        
+        // Pooled ids let Hibernate send these as JDBC batches
+        taskRepository.saveAll(tasks);
+        taskHistoryService.recordCreated(tasks, creatorId);
+        
+        if (notify) {
+            for (Task task : tasks) {
+                if (task.getAssignedTo() != null) {
+                    outboxService.recordNotification(task.getAssignedTo(), task,
+                            "New task assigned: " + task.getTitle(), Notification.NotificationType.TASK_ASSIGNED);
+                    outboxService.recordAssignmentEmail(task.getAssignedTo(), task);
+                }
+            }
+        }
+        
+        // The persistence context can outlive this chunk (open-in-view), so keep it from growing
+        entityManager.flush();
+        entityManager.clear();
+        return rejected;
+    }
+    
+    private Task toTask(TaskRequest request, User creator, User assignee) {
+        Task task = new Task();
+        task.setTitle(request.getTitle());
+        task.setDescription(request.getDescription());
+        task.setPriority(request.getPriority());
+        task.setStatus(request.getStatus() != null ? request.getStatus() : Task.Status.TODO);
+        task.setDeadline(request.getDeadline());
+        task.setCreatedBy(creator);
+        task.setAssignedTo(assignee);
+        task.setCategory(request.getCategory() != null && !request.getCategory().isBlank()
+                ? request.getCategory() : "General");
+        task.setTags(request.getTags());
+        if (task.getStatus() == Task.Status.COMPLETED) {
+            task.setCompletedAt(LocalDateTime.now());
+        }
+        return task;
+    }
+    
+    private void reject(TaskImportResult result, int row, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new TaskImportResult.RowError(row, message));
+        }
+    }
+    
+    private ObjectReader reader(Format format) {
+        if (format == Format.CSV) {
+            return CSV_MAPPER.readerFor(TaskRequest.class).with(CsvSchema.emptySchema().withHeader());
+        }
+        return objectMapper.readerFor(TaskRequest.class);
+    }
+    
+    private ObjectWriter writer(Format format) {
+        ObjectWriter writer = format == Format.CSV
+                ? CSV_MAPPER.writerFor(TaskResponse.class).with(CSV_MAPPER.schemaFor(TaskResponse.class).withHeader())
+                : objectMapper.writerFor(TaskResponse.class).withRootValueSeparator("\n");
+        // Let Jackson buffer across rows; the servlet container owns the response stream
+        return writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+    
+    private record ImportRow(int row, TaskRequest request) {
+    }
+}
@@ -1,19 +1,36 @@
 package com.amdox.taskmanagement.service;
 
+import com.amdox.taskmanagement.dto.PageResponse;
+import com.amdox.taskmanagement.dto.TaskBulkUpdateRequest;
+import com.amdox.taskmanagement.dto.TaskBulkUpdateResult;
+import com.amdox.taskmanagement.dto.TaskFilter;
+import com.amdox.taskmanagement.dto.TaskPatchRequest;
 import com.amdox.taskmanagement.dto.TaskRequest;
 import com.amdox.taskmanagement.dto.TaskResponse;
+import com.amdox.taskmanagement.entity.Attachment;
 import com.amdox.taskmanagement.entity.Notification;
 import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.TaskEvent;
 import com.amdox.taskmanagement.entity.User;
-import com.amdox.taskmanagement.repository.NotificationRepository;
 import com.amdox.taskmanagement.repository.TaskRepository;
+import com.amdox.taskmanagement.repository.TaskRepositoryCustom.BulkTarget;
 import com.amdox.taskmanagement.repository.UserRepository;
+import com.amdox.taskmanagement.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,13 +39,18 @@ public class TaskService {
     
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
-    private final NotificationRepository notificationRepository;
-    private final EmailService emailService;
+    private final OutboxService outboxService;
+    private final TaskHistoryService taskHistoryService;
+    private final AttachmentService attachmentService;
+    
+    private static final int BULK_STATEMENT_SIZE = 1000;
+    
+    @Value("${tasks.bulk.max-rows:5000}")
+    private int bulkMaxRows;
     
     @Transactional
-    public TaskResponse createTask(TaskRequest request, String currentUsername) {
-        User creator = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public TaskResponse createTask(TaskRequest request, UserPrincipal currentUser) {
+        User creator = userRepository.getReferenceById(currentUser.getId());
         
         Task task = new Task();
         task.setTitle(request.getTitle());
@@ -40,127 +62,372 @@ public class TaskService {
         task.setCategory(request.getCategory());
         task.setTags(request.getTags());
         
+        User assignee = null;
         if (request.getAssignedToId() != null) {
-            User assignee = userRepository.findById(request.getAssignedToId())
+            assignee = userRepository.findById(request.getAssignedToId())
                     .orElseThrow(() -> new RuntimeException("Assignee not found"));
             task.setAssignedTo(assignee);
-            
-            // Send notification
-            createNotification(assignee, task, "New task assigned: " + task.getTitle(), 
+        }
+        
+        // Pooled sequence ids defer the INSERT; flush so the response carries createdAt/updatedAt
+        Task savedTask = taskRepository.saveAndFlush(task);
+        taskHistoryService.recordCreated(savedTask, currentUser.getId());
+        
+        if (assignee != null) {
+            // Notification and email are delivered by the outbox relay after commit
+            createNotification(assignee, savedTask, "New task assigned: " + savedTask.getTitle(), 
                     Notification.NotificationType.TASK_ASSIGNED);
-            
-            // Send email
-            emailService.sendTaskAssignmentEmail(assignee.getEmail(), task);
+            outboxService.recordAssignmentEmail(assignee, savedTask);
         }
         
-        Task savedTask = taskRepository.save(task);
         return mapToResponse(savedTask);
     }
     
     @Transactional
-    public TaskResponse updateTask(Long taskId, TaskRequest request, String currentUsername) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
-        
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        // Check permissions
-        if (!canModifyTask(task, currentUser)) {
-            throw new RuntimeException("You don't have permission to modify this task");
-        }
+    public TaskResponse updateTask(Long taskId, TaskRequest request, Long expectedVersion, UserPrincipal currentUser) {
+        Task task = findModifiableTask(taskId, expectedVersion, currentUser);
+        Map<String, Object> before = TaskHistoryService.snapshot(task);
         
         task.setTitle(request.getTitle());
         task.setDescription(request.getDescription());
         task.setPriority(request.getPriority());
         task.setStatus(request.getStatus());
-        task.setDeadline(request.getDeadline());
+        changeDeadline(task, request.getDeadline());
         task.setCategory(request.getCategory());
         task.setTags(request.getTags());
         
-        if (request.getAssignedToId() != null && 
-                (task.getAssignedTo() == null || !task.getAssignedTo().getId().equals(request.getAssignedToId()))) {
-            User newAssignee = userRepository.findById(request.getAssignedToId())
-                    .orElseThrow(() -> new RuntimeException("Assignee not found"));
-            task.setAssignedTo(newAssignee);
-            
-            createNotification(newAssignee, task, "Task reassigned: " + task.getTitle(), 
-                    Notification.NotificationType.TASK_ASSIGNED);
-            emailService.sendTaskAssignmentEmail(newAssignee.getEmail(), task);
-        }
+        reassignIfChanged(task, request.getAssignedToId());
         
         if (request.getStatus() == Task.Status.COMPLETED) {
-            task.setCompletedAt(LocalDateTime.now());
-            if (task.getAssignedTo() != null) {
-                createNotification(task.getCreatedBy(), task, "Task completed: " + task.getTitle(), 
-                        Notification.NotificationType.TASK_COMPLETED);
+            markCompleted(task);
+        }
+        
+        // Flush so the response carries the incremented version (the new ETag)
+        Task updatedTask = taskRepository.saveAndFlush(task);
+        taskHistoryService.recordUpdated(before, updatedTask, currentUser.getId());
+        return mapToResponse(updatedTask);
+    }
+    
+    @Transactional
+    public TaskResponse patchTask(Long taskId, TaskPatchRequest request, Long expectedVersion, UserPrincipal currentUser) {
+        Task task = findModifiableTask(taskId, expectedVersion, currentUser);
+        Map<String, Object> before = TaskHistoryService.snapshot(task);
+        
+        if (request.getTitle() != null) {
+            task.setTitle(request.getTitle());
+        }
+        if (request.getDescription() != null) {
+            task.setDescription(request.getDescription());
+        }
+        if (request.getPriority() != null) {
+            task.setPriority(request.getPriority());
+        }
+        if (request.getDeadline() != null) {
+            changeDeadline(task, request.getDeadline());
+        }
+        if (request.getCategory() != null) {
+            task.setCategory(request.getCategory());
+        }
+        if (request.getTags() != null) {
+            task.setTags(request.getTags());
+        }
+        
+        reassignIfChanged(task, request.getAssignedToId());
+        
+        if (request.getStatus() != null && request.getStatus() != task.getStatus()) {
+            task.setStatus(request.getStatus());
+            if (request.getStatus() == Task.Status.COMPLETED) {
+                markCompleted(task);
             }
         }
         
-        Task updatedTask = taskRepository.save(task);
+        Task updatedTask = taskRepository.saveAndFlush(task);
+        taskHistoryService.recordUpdated(before, updatedTask, currentUser.getId());
         return mapToResponse(updatedTask);
     }
     
-    public List<TaskResponse> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    @Transactional
+    public TaskBulkUpdateResult bulkUpdate(TaskBulkUpdateRequest request, UserPrincipal currentUser) {
+        TaskBulkUpdateRequest.Patch patch = request.getPatch();
+        if (patch.getStatus() == null && patch.getPriority() == null && patch.getAssignedToId() == null) {
+            throw new RuntimeException("Patch must set status, priority or assignedToId");
+        }
+        if ((request.getIds() == null) == (request.getFilter() == null)) {
+            throw new RuntimeException("Exactly one of ids or filter is required");
+        }
+        if (request.getIds() != null && request.getIds().isEmpty()) {
+            return new TaskBulkUpdateResult(0, List.of());
+        }
+        
+        User assignee = null;
+        if (patch.getAssignedToId() != null) {
+            assignee = userRepository.findById(patch.getAssignedToId())
+                    .orElseThrow(() -> new RuntimeException("Assignee not found"));
+        }
+        
+        // Permission check for the whole selection in one query instead of per task
+        Long modifierId = currentUser.isAdmin() ? null : currentUser.getId();
+        List<BulkTarget> targets = taskRepository.findBulkTargets(request.getIds(), request.getFilter(), modifierId,
+                currentUser.getRole() == User.Role.EDITOR, bulkMaxRows + 1);
+        if (targets.size() > bulkMaxRows) {
+            throw new RuntimeException("Bulk update matches more than " + bulkMaxRows + " tasks");
+        }
+        
+        List<Long> targetIds = targets.stream().map(BulkTarget::id).toList();
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        for (int from = 0; from < targetIds.size(); from += BULK_STATEMENT_SIZE) {
+            List<Long> ids = targetIds.subList(from, Math.min(from + BULK_STATEMENT_SIZE, targetIds.size()));
+            updated += taskRepository.bulkUpdate(ids, patch.getStatus(), patch.getPriority(), assignee, now);
+        }
+        
+        recordBulkNotifications(targets, patch, assignee);
+        recordBulkHistory(targets, patch, assignee, now, currentUser.getId());
+        
+        List<Long> skippedIds = List.of();
+        if (request.getIds() != null) {
+            Set<Long> updatedIds = new HashSet<>(targetIds);
+            skippedIds = request.getIds().stream()
+                    .filter(id -> !updatedIds.contains(id))
+                    .distinct()
+                    .toList();
+        }
+        return new TaskBulkUpdateResult(updated, skippedIds);
+    }
+    
+    @Transactional(readOnly = true)
+    public PageResponse<TaskResponse> getAllTasks(TaskFilter filter) {
+        return findTasks(filter);
     }
     
-    public List<TaskResponse> getMyTasks(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return taskRepository.findByAssignedToId(user.getId()).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageResponse<TaskResponse> getMyTasks(UserPrincipal currentUser, TaskFilter filter) {
+        filter.setAssignedToId(currentUser.getId());
+        return findTasks(filter);
     }
     
-    public List<TaskResponse> getTasksByStatus(Task.Status status) {
-        return taskRepository.findByStatus(status).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageResponse<TaskResponse> getTasksByStatus(Task.Status status, TaskFilter filter) {
+        filter.setStatus(status);
+        return findTasks(filter);
+    }
+    
+    @Transactional(readOnly = true)
+    public PageResponse<TaskResponse> searchTasks(String query, String cursor, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Search query is required");
+        }
+        int pageSize = CursorCodec.pageSize(size);
+        
+        List<TaskRepository.SearchHit> hits;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            hits = taskRepository.searchAfter(query, Float.parseFloat(parts[0]), Long.parseLong(parts[1]), pageSize + 1);
+        } else {
+            hits = taskRepository.search(query, pageSize + 1);
+        }
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits = hits.subList(0, pageSize);
+        }
+        
+        // The projection comes back in arbitrary order, so restore rank order from the hits
+        Map<Long, TaskResponse> tasksById = taskRepository.findResponsesByIdIn(
+                        hits.stream().map(TaskRepository.SearchHit::getId).toList()).stream()
+                .collect(Collectors.toMap(TaskResponse::getId, Function.identity()));
+        List<TaskResponse> items = hits.stream()
+                .map(hit -> tasksById.get(hit.getId()))
+                .filter(Objects::nonNull)
+                .toList();
+        
+        String nextCursor = null;
+        if (hasMore) {
+            TaskRepository.SearchHit last = hits.get(hits.size() - 1);
+            nextCursor = CursorCodec.encode(last.getScore(), last.getId());
+        }
+        return new PageResponse<>(items, nextCursor, hasMore);
     }
     
+    @Transactional(readOnly = true)
     public TaskResponse getTaskById(Long id) {
-        Task task = taskRepository.findById(id)
+        return taskRepository.findResponseById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
-        return mapToResponse(task);
     }
     
     @Transactional
-    public void deleteTask(Long taskId, String currentUsername) {
+    public void deleteTask(Long taskId, UserPrincipal currentUser) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
         
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
         if (!canDeleteTask(task, currentUser)) {
             throw new RuntimeException("You don't have permission to delete this task");
         }
         
+        // Attachment rows go with the task; their files once nothing else refers to them
+        List<String> attachmentHashes = task.getAttachments().stream().map(Attachment::getSha256).toList();
         taskRepository.delete(task);
+        taskHistoryService.recordDeleted(task, currentUser.getId());
+        attachmentService.releaseContentAfterCommit(attachmentHashes);
+    }
+    
+    private Task findModifiableTask(Long taskId, Long expectedVersion, UserPrincipal currentUser) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        
+        // Check permissions
+        if (!canModifyTask(task, currentUser)) {
+            throw new RuntimeException("You don't have permission to modify this task");
+        }
+        
+        // The client edited an older version (If-Match); concurrent writers are caught by @Version on flush
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, taskId);
+        }
+        return task;
+    }
+    
+    private void reassignIfChanged(Task task, Long assignedToId) {
+        if (assignedToId != null && 
+                (task.getAssignedTo() == null || !task.getAssignedTo().getId().equals(assignedToId))) {
+            User newAssignee = userRepository.findById(assignedToId)
+                    .orElseThrow(() -> new RuntimeException("Assignee not found"));
+            task.setAssignedTo(newAssignee);
+            
+            createNotification(newAssignee, task, "Task reassigned: " + task.getTitle(), 
+                    Notification.NotificationType.TASK_ASSIGNED);
+            outboxService.recordAssignmentEmail(newAssignee, task);
+        }
+    }
+    
+    // A moved deadline earns a fresh reminder
+    private void changeDeadline(Task task, LocalDateTime deadline) {
+        if (!Objects.equals(task.getDeadline(), deadline)) {
+            task.setDeadline(deadline);
+            task.setReminderSentAt(null);
+        }
+    }
+    
+    private void markCompleted(Task task) {
+        task.setCompletedAt(LocalDateTime.now());
+        if (task.getAssignedTo() != null) {
+            createNotification(task.getCreatedBy(), task, "Task completed: " + task.getTitle(), 
+                    Notification.NotificationType.TASK_COMPLETED);
+        }
+    }
+    
+    private PageResponse<TaskResponse> findTasks(TaskFilter filter) {
+        int size = CursorCodec.pageSize(filter.getSize());
+        boolean byDeadline = filter.getSort() == TaskFilter.SortOrder.DEADLINE;
+        
+        LocalDateTime afterDeadline = null;
+        Long afterId = null;
+        if (filter.getCursor() != null && !filter.getCursor().isBlank()) {
+            if (byDeadline) {
+                String[] parts = CursorCodec.decode(filter.getCursor(), 2);
+                afterDeadline = LocalDateTime.parse(parts[0]);
+                afterId = Long.valueOf(parts[1]);
+            } else {
+                afterId = Long.valueOf(CursorCodec.decode(filter.getCursor(), 1)[0]);
+            }
+        }
+        
+        // Fetch one extra row to learn whether another page exists
+        List<TaskResponse> items = taskRepository.findPage(filter, afterDeadline, afterId, size + 1);
+        boolean hasMore = items.size() > size;
+        if (hasMore) {
+            items = items.subList(0, size);
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            TaskResponse last = items.get(items.size() - 1);
+            nextCursor = byDeadline
+                    ? CursorCodec.encode(last.getDeadline(), last.getId())
+                    : CursorCodec.encode(last.getId());
+        }
+        
+        return new PageResponse<>(items, nextCursor, hasMore);
+    }
+    
+    // One notification (and email) per affected user rather than one per task
+    private void recordBulkNotifications(List<BulkTarget> targets, TaskBulkUpdateRequest.Patch patch, User assignee) {
+        if (assignee != null) {
+            List<BulkTarget> reassigned = targets.stream()
+                    .filter(target -> !assignee.getId().equals(target.assignedToId()))
+                    .toList();
+            if (reassigned.size() == 1) {
+                Task task = taskRepository.getReferenceById(reassigned.get(0).id());
+                createNotification(assignee, task, "Task reassigned: " + reassigned.get(0).title(),
+                        Notification.NotificationType.TASK_ASSIGNED);
+                outboxService.recordAssignmentEmail(assignee, task);
+            } else if (!reassigned.isEmpty()) {
+                String message = OutboxService.digestMessage(reassigned.size() + " tasks assigned to you",
+                        reassigned.stream().map(BulkTarget::title).toList());
+                createNotification(assignee, null, message, Notification.NotificationType.TASK_ASSIGNED);
+                outboxService.recordDigestEmail(assignee, message);
+            }
+        }
+        
+        if (patch.getStatus() == Task.Status.COMPLETED) {
+            // As in updateTask, creators hear about completion of tasks that have an assignee
+            Map<Long, List<BulkTarget>> completedByCreator = targets.stream()
+                    .filter(target -> target.status() != Task.Status.COMPLETED && target.createdById() != null)
+                    .filter(target -> target.assignedToId() != null || assignee != null)
+                    .collect(Collectors.groupingBy(BulkTarget::createdById));
+            completedByCreator.forEach((creatorId, completed) -> {
+                User creator = userRepository.getReferenceById(creatorId);
+                if (completed.size() == 1) {
+                    createNotification(creator, taskRepository.getReferenceById(completed.get(0).id()),
+                            "Task completed: " + completed.get(0).title(), Notification.NotificationType.TASK_COMPLETED);
+                } else {
+                    String message = OutboxService.digestMessage(completed.size() + " tasks completed",
+                            completed.stream().map(BulkTarget::title).toList());
+                    createNotification(creator, null, message, Notification.NotificationType.TASK_COMPLETED);
+                }
+            });
+        }
+    }
+    
+    // The bulk statement bypasses the entity, so derive each task's diff from its pre-update row
+    private void recordBulkHistory(List<BulkTarget> targets, TaskBulkUpdateRequest.Patch patch, User assignee,
+                                   LocalDateTime now, Long actorId) {
+        List<TaskHistoryService.PendingEvent> events = new ArrayList<>(targets.size());
+        for (BulkTarget target : targets) {
+            Map<String, Object> changes = new LinkedHashMap<>();
+            if (patch.getStatus() != null && patch.getStatus() != target.status()) {
+                changes.put("status", patch.getStatus());
+                if (patch.getStatus() == Task.Status.COMPLETED) {
+                    changes.put("completedAt", now);
+                }
+            }
+            if (patch.getPriority() != null && patch.getPriority() != target.priority()) {
+                changes.put("priority", patch.getPriority());
+            }
+            if (assignee != null && !assignee.getId().equals(target.assignedToId())) {
+                changes.put("assignedToId", assignee.getId());
+            }
+            if (!changes.isEmpty()) {
+                events.add(new TaskHistoryService.PendingEvent(target.id(), TaskEvent.EventType.UPDATED,
+                        target.version() + 1, actorId, now, changes));
+            }
+        }
+        taskHistoryService.recordAll(events);
     }
     
-    private boolean canModifyTask(Task task, User user) {
-        return user.getRole() == User.Role.ADMIN || 
+    private boolean canModifyTask(Task task, UserPrincipal user) {
+        return user.isAdmin() || 
                task.getCreatedBy().getId().equals(user.getId()) ||
                (user.getRole() == User.Role.EDITOR && task.getAssignedTo() != null && 
                 task.getAssignedTo().getId().equals(user.getId()));
     }
     
-    private boolean canDeleteTask(Task task, User user) {
-        return user.getRole() == User.Role.ADMIN || 
+    private boolean canDeleteTask(Task task, UserPrincipal user) {
+        return user.isAdmin() || 
                task.getCreatedBy().getId().equals(user.getId());
     }
     
     private void createNotification(User user, Task task, String message, Notification.NotificationType type) {
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setTask(task);
-        notification.setMessage(message);
-        notification.setType(type);
-        notificationRepository.save(notification);
+        outboxService.recordNotification(user, task, message, type);
     }
     
     private TaskResponse mapToResponse(Task task) {
@@ -176,6 +443,7 @@ public class TaskService {
         response.setCreatedAt(task.getCreatedAt());
         response.setUpdatedAt(task.getUpdatedAt());
         response.setCompletedAt(task.getCompletedAt());
+        response.setVersion(task.getVersion());
         
         if (task.getAssignedTo() != null) {
             response.setAssignedToId(task.getAssignedTo().getId());
@@ -0,0 +1,57 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Fills tasks.search_vector for rows written before V11 installed its triggers. Runs outside
+ * a transaction and commits one id range at a time, so the backfill never holds row locks on
+ * the whole table, and a rerun after a failure skips the rows already filled.
+ */
+public class V11_1__Backfill_task_search_vector extends BaseJavaMigration {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+    
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        // Ids come from pooled sequences and are sparse, so each range is cut at the
+        // BATCH_SIZE-th next id rather than at a fixed id step
+        try (PreparedStatement nextBound = connection.prepareStatement(
+                     "SELECT MAX(id) FROM (SELECT id FROM tasks WHERE id > ? ORDER BY id LIMIT ?) batch");
+             // Only search_vector changes, so the tasks update trigger does not fire
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE tasks SET search_vector = task_search_vector(id, title, description, category, tags) " +
+                     "WHERE id > ? AND id <= ? AND search_vector IS NULL")) {
+            long from = Long.MIN_VALUE;
+            while (true) {
+                nextBound.setLong(1, from);
+                nextBound.setInt(2, BATCH_SIZE);
+                long to;
+                try (ResultSet bound = nextBound.executeQuery()) {
+                    bound.next();
+                    to = bound.getLong(1);
+                    if (bound.wasNull()) {
+                        return;
+                    }
+                }
+                update.setLong(1, from);
+                update.setLong(2, to);
+                update.executeUpdate();
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                from = to;
+            }
+        }
+    }
+}
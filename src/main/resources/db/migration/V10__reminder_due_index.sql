@@ -0,0 +1,6 @@
+-- Deadline reminder scan (TaskRepository.findAssigneesDueForReminder / claimDueReminders).
+-- Partial, so reminded and completed tasks drop out and the index stays small.
+-- Flyway runs this script outside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_reminder_due ON tasks (assigned_to_id, deadline)
+    WHERE reminder_sent_at IS NULL AND status <> 'COMPLETED';
@@ -0,0 +1,60 @@
+-- Full-text search document per task: title (weight A), category and tags (B), description (C)
+-- and the content of the task's most recent comments (D). Triggers keep it current on every
+-- write path, including task imports, bulk updates and comment changes. Existing rows are
+-- backfilled in batches by db.migration.V11_1__Backfill_task_search_vector.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector TSVECTOR;
+
+CREATE OR REPLACE FUNCTION task_search_vector(p_task_id BIGINT, p_title TEXT, p_description TEXT,
+                                              p_category TEXT, p_tags TEXT) RETURNS TSVECTOR AS $$
+    SELECT setweight(to_tsvector('english', coalesce(p_title, '')), 'A')
+        || setweight(to_tsvector('english', coalesce(p_category, '') || ' ' || coalesce(p_tags, '')), 'B')
+        || setweight(to_tsvector('english', coalesce(p_description, '')), 'C')
+        -- Capped so a busy task's comment writes stay cheap; served by idx_comments_task_created
+        || setweight(to_tsvector('english', coalesce(
+               (SELECT string_agg(recent.content, ' ') FROM (
+                    SELECT c.content FROM comments c WHERE c.task_id = p_task_id
+                    ORDER BY c.created_at DESC, c.id DESC LIMIT 100) recent), '')), 'D');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION tasks_refresh_search_vector() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector := task_search_vector(NEW.id, NEW.title, NEW.description, NEW.category, NEW.tags);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tasks_search_vector_insert ON tasks;
+CREATE TRIGGER tasks_search_vector_insert
+    BEFORE INSERT ON tasks
+    FOR EACH ROW EXECUTE FUNCTION tasks_refresh_search_vector();
+
+-- Status, assignee and other updates leave the document alone
+DROP TRIGGER IF EXISTS tasks_search_vector_update ON tasks;
+CREATE TRIGGER tasks_search_vector_update
+    BEFORE UPDATE ON tasks
+    FOR EACH ROW
+    WHEN (OLD.title IS DISTINCT FROM NEW.title
+          OR OLD.description IS DISTINCT FROM NEW.description
+          OR OLD.category IS DISTINCT FROM NEW.category
+          OR OLD.tags IS DISTINCT FROM NEW.tags)
+    EXECUTE FUNCTION tasks_refresh_search_vector();
+
+CREATE OR REPLACE FUNCTION comments_refresh_task_search_vector() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE tasks SET search_vector = task_search_vector(id, title, description, category, tags)
+        WHERE id = OLD.task_id;
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.task_id IS DISTINCT FROM OLD.task_id) THEN
+        UPDATE tasks SET search_vector = task_search_vector(id, title, description, category, tags)
+        WHERE id = NEW.task_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS comments_task_search_vector ON comments;
+CREATE TRIGGER comments_task_search_vector
+    AFTER INSERT OR DELETE OR UPDATE OF content, task_id ON comments
+    FOR EACH ROW EXECUTE FUNCTION comments_refresh_task_search_vector();
@@ -0,0 +1,4 @@
+-- GIN index for TaskRepository.search / searchAfter (search_vector @@ query).
+-- Flyway runs this script outside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_search ON tasks USING GIN (search_vector);
@@ -0,0 +1,72 @@
+-- Normalized tags: one row per distinct tag name and a task_tags link table, derived from the
+-- free-text tasks.tags column (comma-separated) by a trigger. Every writer, including instances
+-- still running the previous release, keeps the tables in sync, and the tasks table itself is
+-- not altered, so the migration runs without downtime.
+
+CREATE TABLE IF NOT EXISTS tags (
+    id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name  VARCHAR(64) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS task_tags (
+    task_id  BIGINT NOT NULL REFERENCES tasks (id) ON DELETE CASCADE,
+    tag_id   BIGINT NOT NULL REFERENCES tags (id),
+    PRIMARY KEY (task_id, tag_id)
+);
+
+-- Tag filter and per-tag counts start from the tag
+CREATE INDEX IF NOT EXISTS idx_task_tags_tag ON task_tags (tag_id, task_id);
+
+-- "Backend, API ,backend" -> {backend, api}
+CREATE OR REPLACE FUNCTION normalized_tags(p_tags TEXT) RETURNS SETOF TEXT AS $$
+    SELECT DISTINCT left(lower(btrim(part)), 64)
+    FROM regexp_split_to_table(coalesce(p_tags, ''), ',') AS part
+    WHERE btrim(part) <> ''
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION tasks_sync_tags() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        DELETE FROM task_tags WHERE task_id = NEW.id;
+    END IF;
+    
+    INSERT INTO tags (name)
+    SELECT n.name FROM normalized_tags(NEW.tags) AS n(name)
+    ON CONFLICT (name) DO NOTHING;
+    
+    INSERT INTO task_tags (task_id, tag_id)
+    SELECT NEW.id, tg.id
+    FROM normalized_tags(NEW.tags) AS n(name)
+    JOIN tags tg ON tg.name = n.name
+    ON CONFLICT DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tasks_sync_tags_insert ON tasks;
+CREATE TRIGGER tasks_sync_tags_insert
+    AFTER INSERT ON tasks
+    FOR EACH ROW
+    WHEN (NEW.tags IS NOT NULL)
+    EXECUTE FUNCTION tasks_sync_tags();
+
+DROP TRIGGER IF EXISTS tasks_sync_tags_update ON tasks;
+CREATE TRIGGER tasks_sync_tags_update
+    AFTER UPDATE OF tags ON tasks
+    FOR EACH ROW
+    WHEN (OLD.tags IS DISTINCT FROM NEW.tags)
+    EXECUTE FUNCTION tasks_sync_tags();
+
+-- Backfill existing tasks; the triggers above already cover rows written from here on
+INSERT INTO tags (name)
+SELECT DISTINCT n.name
+FROM tasks t
+CROSS JOIN LATERAL normalized_tags(t.tags) AS n(name)
+ON CONFLICT (name) DO NOTHING;
+
+INSERT INTO task_tags (task_id, tag_id)
+SELECT t.id, tg.id
+FROM tasks t
+CROSS JOIN LATERAL normalized_tags(t.tags) AS n(name)
+JOIN tags tg ON tg.name = n.name
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,45 @@
+-- Dashboard rollups. Each view is small (bounded by statuses, priorities, categories, assignees
+-- or days, not by task count) and is refreshed CONCURRENTLY by DashboardService, which needs
+-- the unique index on each view. Overdue-ness is evaluated at refresh time.
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS task_counts_mv AS
+SELECT status,
+       priority,
+       COALESCE(status <> 'COMPLETED' AND deadline < LOCALTIMESTAMP, FALSE) AS overdue,
+       COUNT(*) AS task_count,
+       LOCALTIMESTAMP AS refreshed_at
+FROM tasks
+GROUP BY 1, 2, 3;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_task_counts_mv ON task_counts_mv (status, priority, overdue);
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS task_category_counts_mv AS
+SELECT category,
+       COUNT(*) AS task_count,
+       COUNT(*) FILTER (WHERE status <> 'COMPLETED') AS open_count
+FROM tasks
+GROUP BY category;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_task_category_counts_mv ON task_category_counts_mv (category);
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS assignee_workload_mv AS
+SELECT assigned_to_id AS user_id,
+       COUNT(*) FILTER (WHERE status <> 'COMPLETED') AS open_count,
+       COUNT(*) FILTER (WHERE status = 'IN_PROGRESS') AS in_progress_count,
+       COUNT(*) FILTER (WHERE status <> 'COMPLETED' AND deadline < LOCALTIMESTAMP) AS overdue_count,
+       COUNT(*) FILTER (WHERE completed_at >= LOCALTIMESTAMP - INTERVAL '30 days') AS completed_last_30_days
+FROM tasks
+WHERE assigned_to_id IS NOT NULL
+GROUP BY assigned_to_id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_assignee_workload_mv ON assignee_workload_mv (user_id);
+CREATE INDEX IF NOT EXISTS idx_assignee_workload_mv_open ON assignee_workload_mv (open_count DESC, user_id);
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS task_throughput_daily_mv AS
+SELECT CAST(completed_at AS DATE) AS day,
+       COUNT(*) AS completed_count
+FROM tasks
+WHERE completed_at IS NOT NULL
+GROUP BY CAST(completed_at AS DATE);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_task_throughput_daily_mv ON task_throughput_daily_mv (day);
@@ -0,0 +1,48 @@
+-- Append-only task history. Each row holds the new values of the fields one change touched,
+-- as compact JSON; CREATED and SNAPSHOT rows hold the full state. There is no foreign key to
+-- tasks so a task's history outlives the task itself.
+
+CREATE SEQUENCE IF NOT EXISTS task_events_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS task_events (
+    id            BIGINT PRIMARY KEY,
+    task_id       BIGINT NOT NULL,
+    type          VARCHAR(16) NOT NULL,
+    task_version  BIGINT NOT NULL,
+    actor_id      BIGINT,
+    occurred_at   TIMESTAMP NOT NULL,
+    changes       TEXT NOT NULL
+);
+
+-- History is read in task version order: ids from pooled blocks do not follow change order
+CREATE INDEX IF NOT EXISTS idx_task_events_task ON task_events (task_id, task_version, occurred_at, id);
+
+CREATE OR REPLACE FUNCTION task_events_append_only() RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'task_events is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_task_events_append_only ON task_events;
+CREATE TRIGGER trg_task_events_append_only
+    BEFORE UPDATE OR DELETE ON task_events
+    FOR EACH ROW EXECUTE FUNCTION task_events_append_only();
+
+-- Existing tasks start their history with a snapshot of their current state
+INSERT INTO task_events (id, task_id, type, task_version, actor_id, occurred_at, changes)
+SELECT row_number() OVER (ORDER BY t.id), t.id, 'SNAPSHOT', t.version, NULL, LOCALTIMESTAMP,
+       json_strip_nulls(json_build_object(
+               'title', t.title,
+               'description', t.description,
+               'priority', t.priority,
+               'status', t.status,
+               'deadline', t.deadline,
+               'category', t.category,
+               'tags', t.tags,
+               'assignedToId', t.assigned_to_id,
+               'createdById', t.created_by_id,
+               'completedAt', t.completed_at))::text
+FROM tasks t
+WHERE NOT EXISTS (SELECT 1 FROM task_events);
+
+SELECT setval('task_events_seq', COALESCE(MAX(id), 0) + 50) FROM task_events;
@@ -0,0 +1,5 @@
+-- Attachments are stored content-addressed: file_path points at a file named after the
+-- SHA-256 of its content, shared by every attachment with the same content. Rows uploaded
+-- before this change keep a NULL hash and their original path.
+
+ALTER TABLE attachments ADD COLUMN IF NOT EXISTS sha256 VARCHAR(64);
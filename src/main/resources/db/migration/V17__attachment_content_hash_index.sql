@@ -0,0 +1,4 @@
+-- Reference count of a stored file (AttachmentRepository.countBySha256) before it is removed.
+-- Flyway runs this script outside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_attachments_sha256 ON attachments (sha256);
@@ -0,0 +1,8 @@
+-- Email events stay in the outbox until the mail dispatcher reports the outcome. The relay
+-- claims a row by setting claimed_until; the row is deleted once the message is sent, and
+-- becomes eligible again when the claim expires (e.g. the node died with it queued).
+-- Messages the dispatcher gives up on too often are parked with failed_at set.
+
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP(6);
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS failed_at TIMESTAMP(6);
@@ -0,0 +1,32 @@
+-- V7 left the identity defaults in place next to the pooled sequences. A row inserted without an id
+-- would take the identity counter's next value, which Hibernate's pooled blocks eventually reach as
+-- well, and the later INSERT fails on the primary key. Make the sequence the only id source: a manual
+-- insert now draws from the same sequence, and the value it gets is never handed out as a block to
+-- Hibernate (tags keep their identity, only the trigger ever inserts them).
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT nextval('tasks_seq');
+ALTER SEQUENCE tasks_seq OWNED BY tasks.id;
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER SEQUENCE comments_seq OWNED BY comments.id;
+
+ALTER TABLE attachments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE attachments ALTER COLUMN id SET DEFAULT nextval('attachments_seq');
+ALTER SEQUENCE attachments_seq OWNED BY attachments.id;
+
+ALTER TABLE notifications ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE notifications ALTER COLUMN id SET DEFAULT nextval('notifications_seq');
+ALTER SEQUENCE notifications_seq OWNED BY notifications.id;
+
+ALTER TABLE outbox_events ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE outbox_events ALTER COLUMN id SET DEFAULT nextval('outbox_events_seq');
+ALTER SEQUENCE outbox_events_seq OWNED BY outbox_events.id;
+
+ALTER TABLE task_events ALTER COLUMN id SET DEFAULT nextval('task_events_seq');
+ALTER SEQUENCE task_events_seq OWNED BY task_events.id;
@@ -0,0 +1,70 @@
+-- Baseline schema matching the JPA entities. Uses IF NOT EXISTS so that databases
+-- previously managed by hibernate.ddl-auto=update can be migrated in place.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    VARCHAR(255) NOT NULL UNIQUE,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    full_name   VARCHAR(255) NOT NULL,
+    role        VARCHAR(255) NOT NULL,
+    enabled     BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title           VARCHAR(255)  NOT NULL,
+    description     VARCHAR(2000),
+    priority        VARCHAR(255)  NOT NULL,
+    status          VARCHAR(255)  NOT NULL,
+    deadline        TIMESTAMP(6)  NOT NULL,
+    assigned_to_id  BIGINT REFERENCES users (id),
+    created_by_id   BIGINT        NOT NULL REFERENCES users (id),
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    completed_at    TIMESTAMP(6),
+    category        VARCHAR(255)  NOT NULL,
+    tags            VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS comments (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content     VARCHAR(1000) NOT NULL,
+    task_id     BIGINT        NOT NULL REFERENCES tasks (id),
+    user_id     BIGINT        NOT NULL REFERENCES users (id),
+    created_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS attachments (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    file_name       VARCHAR(255) NOT NULL,
+    file_path       VARCHAR(255) NOT NULL,
+    file_type       VARCHAR(255),
+    file_size       BIGINT,
+    task_id         BIGINT       NOT NULL REFERENCES tasks (id),
+    uploaded_by_id  BIGINT       NOT NULL REFERENCES users (id),
+    uploaded_at     TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    message     VARCHAR(255) NOT NULL,
+    type        VARCHAR(255) NOT NULL,
+    user_id     BIGINT       NOT NULL REFERENCES users (id),
+    task_id     BIGINT REFERENCES tasks (id),
+    is_read     BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6),
+    read_at     TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type               VARCHAR(255) NOT NULL,
+    user_id            BIGINT       NOT NULL,
+    task_id            BIGINT,
+    message            VARCHAR(255),
+    notification_type  VARCHAR(255),
+    created_at         TIMESTAMP(6)
+);
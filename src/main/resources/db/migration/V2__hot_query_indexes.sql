@@ -0,0 +1,27 @@
+-- Indexes for the hot repository predicates. CONCURRENTLY keeps the tables writable
+-- while the indexes build; Flyway runs this script outside a transaction.
+
+-- TaskRepository.findByAssignedToId / findByAssignedToIdAndStatus, "my tasks" listing
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_assignee_status ON tasks (assigned_to_id, status);
+
+-- TaskRepository.findByStatus, status-filtered listing in id order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_status_id ON tasks (status, id);
+
+-- TaskRepository.findByDeadlineBetween / findByDeadlineBefore, (deadline, id) keyset listing
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_deadline_id ON tasks (deadline, id);
+
+-- TaskRepository.findByCreatedById
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_created_by ON tasks (created_by_id);
+
+-- NotificationRepository.findByUserIdAndIsReadFalse / countByUserIdAndIsReadFalse
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_unread ON notifications (user_id) WHERE is_read = false;
+
+-- NotificationRepository.findByUserIdOrderByCreatedAtDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_created ON notifications (user_id, created_at DESC);
+
+-- CommentRepository.findByTaskId / findByUserId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_task ON comments (task_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_user ON comments (user_id);
+
+-- AttachmentRepository.findByTaskId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_attachments_task ON attachments (task_id);
@@ -0,0 +1,13 @@
+-- Materialized per-user unread notification counter, maintained incrementally by the
+-- application and periodically reconciled against the notifications table.
+
+CREATE TABLE notification_counters (
+    user_id       BIGINT PRIMARY KEY REFERENCES users (id),
+    unread_count  BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO notification_counters (user_id, unread_count)
+SELECT u.id, COUNT(n.id)
+FROM users u
+LEFT JOIN notifications n ON n.user_id = u.id AND n.is_read = false
+GROUP BY u.id;
@@ -0,0 +1,16 @@
+-- Cold storage for read notifications past the retention age. No foreign keys, so
+-- archived rows survive the deletion of their task or user.
+
+CREATE TABLE notifications_archive (
+    id           BIGINT       PRIMARY KEY,
+    message      VARCHAR(255) NOT NULL,
+    type         VARCHAR(255) NOT NULL,
+    user_id      BIGINT       NOT NULL,
+    task_id      BIGINT,
+    is_read      BOOLEAN      NOT NULL,
+    created_at   TIMESTAMP(6),
+    read_at      TIMESTAMP(6),
+    archived_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_notifications_archive_user_created ON notifications_archive (user_id, created_at DESC);
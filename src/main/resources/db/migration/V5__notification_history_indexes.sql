@@ -0,0 +1,5 @@
+-- Keyset-paginated per-user history (id DESC) and the retention job's scan of old read rows.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_id_desc ON notifications (user_id, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_read_created ON notifications (created_at) WHERE is_read = true;
@@ -0,0 +1,5 @@
+-- Keyset comment feed per task ordered by (created_at, id); supersedes the plain task_id index.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_task_created ON comments (task_id, created_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_comments_task;
@@ -0,0 +1,24 @@
+-- Sequence-based ids with a pooled allocation of 50 (matches @SequenceGenerator allocationSize),
+-- so Hibernate can assign ids without a round-trip per insert and batch the INSERTs.
+-- Each sequence starts past the current max id; the identity defaults stay for manual inserts.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50) FROM users;
+
+CREATE SEQUENCE IF NOT EXISTS tasks_seq INCREMENT BY 50;
+SELECT setval('tasks_seq', COALESCE(MAX(id), 0) + 50) FROM tasks;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+SELECT setval('comments_seq', COALESCE(MAX(id), 0) + 50) FROM comments;
+
+CREATE SEQUENCE IF NOT EXISTS attachments_seq INCREMENT BY 50;
+SELECT setval('attachments_seq', COALESCE(MAX(id), 0) + 50) FROM attachments;
+
+-- Archived notifications keep their ids, so start past both tables
+CREATE SEQUENCE IF NOT EXISTS notifications_seq INCREMENT BY 50;
+SELECT setval('notifications_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM notifications),
+                       (SELECT COALESCE(MAX(id), 0) FROM notifications_archive)) + 50);
+
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq INCREMENT BY 50;
+SELECT setval('outbox_events_seq', COALESCE(MAX(id), 0) + 50) FROM outbox_events;
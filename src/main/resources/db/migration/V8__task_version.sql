@@ -0,0 +1,3 @@
+-- Optimistic-locking version for tasks (@Version on Task); exposed to clients as the ETag.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Per-task reminder progress: a task whose reminder has been issued is stamped, so a
+-- restarted or overlapping reminder run never sends it again. Cleared when the deadline moves.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS reminder_sent_at TIMESTAMP(6);
@@ -0,0 +1,74 @@
+package com.amdox.taskmanagement;
+
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Boots the application against a throwaway PostgreSQL migrated by Flyway, with the
+ * background jobs switched off so they don't add work to what a test measures. Skipped
+ * when no Docker daemon is available.
+ * <p>
+ * One container serves every test class: Spring caches application contexts across classes,
+ * and a cached context must never point at a container that was already stopped. Tests share
+ * the database, so they must not rely on being the only writer.
+ */
+@SpringBootTest(properties = "scheduling.enabled=false")
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+    
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    // Outlives any single test class for the same reason as the container
+    static final Path STORAGE_DIR;
+    
+    static {
+        // Removed by Testcontainers' reaper when the test JVM exits
+        if (DockerClientFactory.instance().isDockerAvailable()) {
+            POSTGRES.start();
+        }
+        try {
+            STORAGE_DIR = Files.createTempDirectory("attachments-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("attachments.storage-dir", STORAGE_DIR::toString);
+    }
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    /**
+     * Saves a user with a unique username and email, so tests sharing the database never collide.
+     */
+    protected User createUser(User.Role role) {
+        String name = role.name().toLowerCase() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("x");
+        user.setFullName("User " + name);
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
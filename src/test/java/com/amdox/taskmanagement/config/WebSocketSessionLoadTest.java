@@ -0,0 +1,155 @@
+package com.amdox.taskmanagement.config;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.repository.UserRepository;
+import com.amdox.taskmanagement.security.JwtUtil;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Holds benchmark.ws.sessions (default 10,000) concurrent SockJS/STOMP sessions against the
+ * in-memory broker, then pushes one notification to all of them and waits for every delivery.
+ * Client and server share this JVM, so each session costs two sockets and roughly 150 KB of
+ * heap: raise the open-file limit (ulimit -n) above twice the session count and the heap with
+ * it, e.g. {@code mvn test -Pbenchmark -Dtest=WebSocketSessionLoadTest -DargLine=-Xmx2g}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "scheduling.enabled=false",
+        "server.tomcat.max-connections=-1",
+        "server.tomcat.accept-count=1000"
+})
+class WebSocketSessionLoadTest extends PostgresIntegrationTest {
+    
+    private static final int SESSIONS = Integer.getInteger("benchmark.ws.sessions", 10_000);
+    private static final int CONNECT_CONCURRENCY = 200;
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+    
+    private final List<StompSession> sessions = new ArrayList<>();
+    
+    private final ThreadPoolTaskScheduler heartbeats = new ThreadPoolTaskScheduler();
+    
+    private WebSocketStompClient stompClient;
+    
+    @AfterEach
+    void disconnect() {
+        sessions.forEach(StompSession::disconnect);
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+        heartbeats.shutdown();
+    }
+    
+    @Test
+    void holdsTenThousandSessionsAndDeliversToAllOfThem() throws Exception {
+        User user = userRepository.findByEmail("ws-load@example.com").orElseGet(() -> {
+            User created = new User();
+            created.setUsername("ws-load");
+            created.setEmail("ws-load@example.com");
+            created.setPassword("x");
+            created.setFullName("WebSocket Load");
+            return userRepository.save(created);
+        });
+        String token = jwtUtil.generateToken(UserPrincipal.from(user));
+        
+        heartbeats.setPoolSize(2);
+        heartbeats.initialize();
+        stompClient = new WebSocketStompClient(new SockJsClient(
+                List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(heartbeats);
+        
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        CountDownLatch delivered = new CountDownLatch(SESSIONS);
+        String url = "http://localhost:" + port + "/ws";
+        
+        long connectStart = System.nanoTime();
+        for (int connected = 0; connected < SESSIONS; connected += CONNECT_CONCURRENCY) {
+            List<CompletableFuture<StompSession>> wave = new ArrayList<>();
+            for (int i = connected; i < Math.min(SESSIONS, connected + CONNECT_CONCURRENCY); i++) {
+                wave.add(stompClient.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders,
+                        new StompSessionHandlerAdapter() {
+                        }));
+            }
+            for (CompletableFuture<StompSession> future : wave) {
+                StompSession session = future.get(60, TimeUnit.SECONDS);
+                session.subscribe("/user/queue/notifications", new CountingHandler(delivered));
+                sessions.add(session);
+            }
+        }
+        long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+        
+        // SUBSCRIBE frames are processed asynchronously; give the broker time to register them all
+        TimeUnit.SECONDS.sleep(Math.max(2, SESSIONS / 2_000));
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        
+        long pushStart = System.nanoTime();
+        messagingTemplate.convertAndSendToUser(user.getUsername(), "/queue/notifications", Map.of("message", "load test"));
+        boolean allDelivered = delivered.await(5, TimeUnit.MINUTES);
+        long pushMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pushStart);
+        
+        log.info("{} sessions connected in {} ms; heap in use {} MB (client and server); " +
+                        "fan-out delivered {} messages in {} ms",
+                sessions.size(), connectMillis, heapMb, SESSIONS - delivered.getCount(), pushMillis);
+        assertThat(sessions).hasSize(SESSIONS);
+        assertThat(allDelivered).as("%d of %d sessions received the push",
+                SESSIONS - delivered.getCount(), SESSIONS).isTrue();
+    }
+    
+    private record CountingHandler(CountDownLatch delivered) implements StompFrameHandler {
+        
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+        
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            delivered.countDown();
+        }
+    }
+}
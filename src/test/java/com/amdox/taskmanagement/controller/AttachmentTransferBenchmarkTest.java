@@ -0,0 +1,181 @@
+package com.amdox.taskmanagement.controller;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.AttachmentResponse;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.repository.TaskRepository;
+import com.amdox.taskmanagement.repository.UserRepository;
+import com.amdox.taskmanagement.security.JwtUtil;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uploads and downloads one attachment of benchmark.transfer.bytes (default 2 GiB) over HTTP,
+ * generating the content on the fly, and checks that the upload and download SHA-256 match the
+ * content sent. The file is several times larger than the benchmark profile's 512 MB heap, so
+ * the test only passes if neither direction buffers the body in memory; peak heap is logged.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "scheduling.enabled=false")
+class AttachmentTransferBenchmarkTest extends PostgresIntegrationTest {
+    
+    private static final long BYTES = Long.getLong("benchmark.transfer.bytes", 2L * 1024 * 1024 * 1024);
+    private static final String BOUNDARY = "attachment-transfer-benchmark";
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void transfersAFileLargerThanTheHeap() throws Exception {
+        assertThat(BYTES).as("transfer size must exceed the heap").isGreaterThan(Runtime.getRuntime().maxMemory());
+        
+        User user = new User();
+        user.setUsername("transfer-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword("x");
+        user.setFullName("Transfer Benchmark");
+        userRepository.save(user);
+        Task task = new Task();
+        task.setTitle("Large attachment");
+        task.setDeadline(LocalDateTime.now().plusDays(1));
+        task.setCreatedBy(user);
+        taskRepository.save(task);
+        String authorization = "Bearer " + jwtUtil.generateToken(UserPrincipal.from(user));
+        
+        HttpClient client = HttpClient.newHttpClient();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong peakHeap = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 100, TimeUnit.MILLISECONDS);
+        try {
+            MessageDigest sent = MessageDigest.getInstance("SHA-256");
+            long start = System.nanoTime();
+            HttpResponse<String> uploaded = client.send(HttpRequest.newBuilder()
+                            .uri(URI.create("http://localhost:" + port + "/api/attachments/task/" + task.getId()))
+                            .header("Authorization", authorization)
+                            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                            .POST(HttpRequest.BodyPublishers.ofInputStream(() -> multipartBody(sent)))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            long uploadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertThat(uploaded.statusCode()).as(uploaded.body()).isEqualTo(200);
+            AttachmentResponse attachment = objectMapper.readValue(uploaded.body(), AttachmentResponse.class);
+            String expected = HexFormat.of().formatHex(sent.digest());
+            
+            MessageDigest received = MessageDigest.getInstance("SHA-256");
+            start = System.nanoTime();
+            HttpResponse<InputStream> downloaded = client.send(HttpRequest.newBuilder()
+                            .uri(URI.create("http://localhost:" + port + "/api/attachments/" + attachment.getId() + "/download"))
+                            .header("Authorization", authorization)
+                            .build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            long downloadedBytes;
+            try (InputStream body = new DigestInputStream(downloaded.body(), received)) {
+                downloadedBytes = body.transferTo(OutputStream.nullOutputStream());
+            }
+            long downloadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            
+            log.info("{} MB attachment: upload {} ms, download {} ms; peak heap {} MB of {} MB max",
+                    BYTES >> 20, uploadMillis, downloadMillis, peakHeap.get() >> 20, Runtime.getRuntime().maxMemory() >> 20);
+            assertThat(downloaded.statusCode()).isEqualTo(200);
+            assertThat(attachment.getFileSize()).isEqualTo(BYTES);
+            assertThat(attachment.getSha256()).isEqualTo(expected);
+            assertThat(downloadedBytes).isEqualTo(BYTES);
+            assertThat(HexFormat.of().formatHex(received.digest())).isEqualTo(expected);
+        } finally {
+            sampler.shutdownNow();
+        }
+    }
+    
+    // Generated content framed as a single "file" part; the digest sees exactly the file bytes
+    private static InputStream multipartBody(MessageDigest digest) {
+        String head = "--" + BOUNDARY + "\r\n" +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"large.bin\"\r\n" +
+                "Content-Type: application/octet-stream\r\n\r\n";
+        String tail = "\r\n--" + BOUNDARY + "--\r\n";
+        return new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(head.getBytes(StandardCharsets.US_ASCII)),
+                new DigestInputStream(new GeneratedContent(BYTES), digest),
+                new ByteArrayInputStream(tail.getBytes(StandardCharsets.US_ASCII)))));
+    }
+    
+    private static final class GeneratedContent extends InputStream {
+        
+        private final SplittableRandom random = new SplittableRandom(42);
+        private final byte[] block = new byte[64 * 1024];
+        private int position = block.length;
+        private long remaining;
+        
+        GeneratedContent(long size) {
+            this.remaining = size;
+        }
+        
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining == 0) {
+                return -1;
+            }
+            if (position == block.length) {
+                random.nextBytes(block);
+                position = 0;
+            }
+            int count = (int) Math.min(Math.min(length, block.length - position), remaining);
+            System.arraycopy(block, position, buffer, offset, count);
+            position += count;
+            remaining -= count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.amdox.taskmanagement.controller;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.TaskRequest;
+import com.amdox.taskmanagement.dto.TaskResponse;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.security.JwtUtil;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import com.amdox.taskmanagement.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Optimistic concurrency over HTTP: the task version is the ETag, and an If-Match naming an
+ * older version is refused with 412 instead of overwriting the newer edit.
+ */
+@AutoConfigureMockMvc
+class TaskControllerTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    private String authorization;
+    
+    private Long taskId;
+    
+    @BeforeEach
+    void setUp() {
+        User editor = createUser(User.Role.EDITOR);
+        authorization = "Bearer " + jwtUtil.generateToken(UserPrincipal.from(editor));
+        TaskRequest request = new TaskRequest();
+        request.setTitle("Versioned task");
+        request.setPriority(Task.Priority.MEDIUM);
+        request.setDeadline(LocalDateTime.now().plusDays(7));
+        TaskResponse task = taskService.createTask(request, UserPrincipal.from(editor));
+        taskId = task.getId();
+    }
+    
+    @Test
+    void patchChangesTheETag() throws Exception {
+        String before = mockMvc.perform(get("/api/tasks/{id}", taskId).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        String after = patchTitle("Renamed once", before)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        assertThat(before).isEqualTo("\"0\"");
+        assertThat(after).isEqualTo("\"1\"");
+        mockMvc.perform(get("/api/tasks/{id}", taskId).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(header().string(HttpHeaders.ETAG, after));
+    }
+    
+    @Test
+    void staleIfMatchIsRejected() throws Exception {
+        patchTitle("Saved by the first writer", "\"0\"").andExpect(status().isOk());
+        
+        patchTitle("Lost update", "\"0\"")
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/tasks/{id}", taskId)
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Lost update\", \"priority\": \"HIGH\", \"status\": \"TODO\", "
+                                + "\"deadline\": \"" + LocalDateTime.now().plusDays(3).withNano(0) + "\"}"))
+                .andExpect(status().isPreconditionFailed());
+        
+        TaskResponse current = taskService.getTaskById(taskId);
+        assertThat(current.getTitle()).isEqualTo("Saved by the first writer");
+        assertThat(current.getVersion()).isEqualTo(1);
+    }
+    
+    @Test
+    void missingIfMatchOverwritesTheCurrentVersion() throws Exception {
+        patchTitle("Saved by the first writer", "\"0\"").andExpect(status().isOk());
+        
+        patchTitle("Last writer wins", null)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.title").value("Last writer wins"));
+    }
+    
+    private ResultActions patchTitle(String title, String ifMatch) throws Exception {
+        MockHttpServletRequestBuilder request = patch("/api/tasks/{id}", taskId)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"" + title + "\"}");
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return mockMvc.perform(request);
+    }
+}
@@ -0,0 +1,242 @@
+package com.amdox.taskmanagement.repository;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.TaskFilter;
+import com.amdox.taskmanagement.entity.Task;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the indexes behind the hot repository predicates. Each case calls the repository
+ * method the application uses, captures the SQL and bind values Hibernate actually sends
+ * (datasource-proxy), and checks that EXPLAIN of that statement uses the index built for it.
+ * <p>
+ * The EXPLAIN runs in a rolled-back transaction that first seeds tasks in a production-like
+ * shape (most of them completed, deadlines spread over two years, a few hundred assignees), an
+ * attachment on every fourth of them, and analyzes them; against the handful of test rows the
+ * planner settles for any full index scan that feeds a merge join, or walks the primary key of a
+ * table that other tests have emptied again. The other tables stay small, so enable_seqscan is switched off as
+ * well. Naming the index matters because many of these queries order by id: with the intended
+ * index dropped the planner would fall back to a primary-key scan, which is an index scan too.
+ */
+class HotQueryPlanTest extends PostgresIntegrationTest {
+    
+    private static final List<Statement> STATEMENTS = new CopyOnWriteArrayList<>();
+    
+    private static final LocalDateTime LONG_AGO = LocalDateTime.of(2000, 1, 1, 0, 0);
+    
+    private static final String SEED_USERS = """
+            INSERT INTO users (username, email, password, full_name, role, enabled)
+            SELECT 'plan-' || g || '-' || gen_random_uuid(), 'plan-' || g || '-' || gen_random_uuid() || '@example.com',
+                   'x', 'Plan User', 'VIEWER', true
+            FROM generate_series(1, 200) g
+            """;
+    
+    private static final String SEED_TASKS = """
+            INSERT INTO tasks (title, priority, status, deadline, assigned_to_id, created_by_id, category, version)
+            SELECT 'Plan task ' || g, 'MEDIUM',
+                   CASE WHEN g % 50 = 0 THEN 'TODO' WHEN g % 50 = 1 THEN 'IN_PROGRESS' ELSE 'COMPLETED' END,
+                   now() + (g % 730 - 365) * interval '1 day', u.ids[1 + g % cardinality(u.ids)], u.ids[1], 'General', 0
+            FROM generate_series(1, 20000) g, (SELECT array_agg(id) AS ids FROM users WHERE username LIKE 'plan-%') u
+            """;
+    
+    private static final String SEED_ATTACHMENTS = """
+            INSERT INTO attachments (file_name, file_path, file_type, file_size, sha256, task_id, uploaded_by_id, uploaded_at)
+            SELECT 'plan-' || t.id || '.txt', 'plan/' || t.id, 'text/plain', 1024,
+                   encode(sha256(convert_to('plan-' || t.id, 'UTF8')), 'hex'), t.id, t.created_by_id, now()
+            FROM tasks t
+            WHERE t.title LIKE 'Plan task %' AND t.id % 4 = 0
+            """;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+    
+    @Autowired
+    private TaskEventRepository taskEventRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                hot("my tasks by status", "idx_tasks_assignee_status", test ->
+                        test.taskRepository.findPage(filter(f -> {
+                            f.setAssignedToId(1L);
+                            f.setStatus(Task.Status.TODO);
+                        }), null, null, 51)),
+                hot("tasks by status in id order", "idx_tasks_status_id", test ->
+                        test.taskRepository.findPage(filter(f -> f.setStatus(Task.Status.TODO)), null, 100L, 51)),
+                hot("tasks in (deadline, id) order", "idx_tasks_deadline_id", test ->
+                        test.taskRepository.findPage(filter(f -> f.setSort(TaskFilter.SortOrder.DEADLINE)),
+                                LocalDateTime.now(), 100L, 51)),
+                hot("tasks with a tag", "idx_task_tags_tag", test ->
+                        test.taskRepository.findPage(filter(f -> f.setTag(List.of("backend"))), null, null, 51)),
+                hot("tasks created by a user", "idx_tasks_created_by", test ->
+                        test.taskRepository.findByCreatedById(1L)),
+                // The 24-hour window is narrower than the open-task partial index; that one serves the claim
+                hot("deadline reminder scan", "idx_tasks_deadline_id", test ->
+                        test.taskRepository.findAssigneesDueForReminder(LocalDateTime.now(),
+                                LocalDateTime.now().plusHours(24), Task.Status.COMPLETED, 0L, PageRequest.of(0, 200))),
+                hot("deadline reminder claim", "idx_tasks_reminder_due", test ->
+                        test.taskRepository.claimDueReminders(List.of(1L, 2L), LocalDateTime.now(),
+                                LocalDateTime.now().plusHours(24))),
+                hot("full-text search", "idx_tasks_search", test ->
+                        test.taskRepository.search("report", 51)),
+                hot("unread notification count", "idx_notifications_user_unread", test ->
+                        test.notificationRepository.countByUserIdAndIsReadFalse(1L)),
+                hot("notification history page", "idx_notifications_user_id_desc", test ->
+                        test.notificationRepository.findPageByUserId(1L, Long.MAX_VALUE, PageRequest.of(0, 51))),
+                hot("read notifications due for archiving", "idx_notifications_read_created", test ->
+                        test.notificationRepository.archiveReadBefore(LONG_AGO, 5000)),
+                hot("read notifications due for purging", "idx_notifications_read_created", test ->
+                        test.notificationRepository.purgeReadBefore(LONG_AGO, 5000)),
+                hot("comment feed", "idx_comments_task_created", test ->
+                        test.commentRepository.findFeedByTaskIdAfter(1L, LONG_AGO, 0L, PageRequest.of(0, 51))),
+                hot("comments by a user", "idx_comments_user", test ->
+                        test.commentRepository.findByUserId(1L)),
+                hot("attachments of a task", "idx_attachments_task", test ->
+                        test.attachmentRepository.findResponsesByTaskId(1L)),
+                hot("attachment content references", "idx_attachments_sha256", test ->
+                        test.attachmentRepository.countBySha256("abc")),
+                hot("task history", "idx_task_events_task", test ->
+                        test.taskEventRepository.findHistory(1L, PageRequest.of(0, 51))));
+    }
+    
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryUsesItsIndex(String name, String expectedIndex, Consumer<HotQueryPlanTest> query) throws Exception {
+        // Run the real repository call (rolled back, so the DML cases change nothing) and keep its SQL
+        STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            query.accept(this);
+            status.setRollbackOnly();
+        });
+        assertThat(STATEMENTS).as("statements sent by %s", name).hasSize(1);
+        Statement statement = STATEMENTS.get(0);
+        
+        String plan = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.execute(SEED_USERS);
+            jdbcTemplate.execute(SEED_TASKS);
+            jdbcTemplate.execute(SEED_ATTACHMENTS);
+            jdbcTemplate.execute("ANALYZE users");
+            jdbcTemplate.execute("ANALYZE tasks");
+            jdbcTemplate.execute("ANALYZE attachments");
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + statement.sql(), String.class,
+                    statement.args());
+        });
+        
+        List<String> seqScans = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        collectScans(objectMapper.readTree(plan).get(0).get("Plan"), seqScans, indexes);
+        assertThat(seqScans).as("sequential scans in the plan of: %s%n%s", statement.sql(), plan).isEmpty();
+        assertThat(indexes).as("indexes in the plan of: %s%n%s", statement.sql(), plan).contains(expectedIndex);
+    }
+    
+    private static Arguments hot(String name, String expectedIndex, Consumer<HotQueryPlanTest> query) {
+        return Arguments.of(name, expectedIndex, query);
+    }
+    
+    private static TaskFilter filter(Consumer<TaskFilter> settings) {
+        TaskFilter filter = new TaskFilter();
+        settings.accept(filter);
+        return filter;
+    }
+    
+    private static void collectScans(JsonNode node, List<String> seqScans, List<String> indexes) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            seqScans.add(node.path("Relation Name").asText());
+        }
+        if (node.has("Index Name")) {
+            indexes.add(node.path("Index Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectScans(child, seqScans, indexes);
+        }
+    }
+    
+    private record Statement(String sql, Object[] args) {
+    }
+    
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+        
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .listener(new QueryExecutionListener() {
+                                @Override
+                                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                }
+                                
+                                @Override
+                                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                    for (QueryInfo queryInfo : queryInfoList) {
+                                        List<List<ParameterSetOperation>> executions = queryInfo.getParametersList();
+                                        STATEMENTS.add(new Statement(queryInfo.getQuery(), executions.isEmpty()
+                                                ? new Object[0] : bindValues(executions.get(0))));
+                                    }
+                                }
+                            })
+                            .build();
+                }
+            };
+        }
+        
+        // setXxx(index, value, ...) calls in parameter order; setNull binds null
+        private static Object[] bindValues(List<ParameterSetOperation> operations) {
+            return operations.stream()
+                    .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                    .map(operation -> "setNull".equals(operation.getMethod().getName()) ? null : operation.getArgs()[1])
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.amdox.taskmanagement.repository;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts benchmark.inserts.rows (default 10,000) tasks with JDBC batching switched off for the
+ * session and again with the configured batching, counting JDBC executions (round trips) and
+ * time. Both runs use the pooled sequence, so they differ only in batching; the IDENTITY
+ * baseline, which also cost a round trip per row, no longer maps onto these entities.
+ */
+@Slf4j
+@Tag("benchmark")
+class TaskInsertBatchingBenchmarkTest extends PostgresIntegrationTest {
+    
+    private static final int ROWS = Integer.getInteger("benchmark.inserts.rows", 10_000);
+    
+    private static final AtomicLong EXECUTIONS = new AtomicLong();
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void batchedInsertsAgainstOneRoundTripPerRow() {
+        User creator = new User();
+        creator.setUsername("batch-" + System.nanoTime());
+        creator.setEmail(creator.getUsername() + "@example.com");
+        creator.setPassword("x");
+        creator.setFullName("Batch Creator");
+        userRepository.save(creator);
+        
+        Run unbatched = insertTasks(creator, 1);
+        Run batched = insertTasks(creator, null);
+        
+        log.info("Inserting {} tasks: unbatched {} ms / {} JDBC executions, batched {} ms / {} JDBC executions",
+                ROWS, unbatched.millis(), unbatched.executions(), batched.millis(), batched.executions());
+        assertThat(unbatched.executions()).isGreaterThanOrEqualTo(ROWS);
+        assertThat(batched.executions()).isLessThan(ROWS / 10);
+    }
+    
+    private Run insertTasks(User creator, Integer jdbcBatchSize) {
+        EXECUTIONS.set(0);
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (jdbcBatchSize != null) {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            }
+            User reference = entityManager.getReference(User.class, creator.getId());
+            for (int i = 0; i < ROWS; i++) {
+                Task task = new Task();
+                task.setTitle("Batch task " + i);
+                task.setDeadline(LocalDateTime.now().plusDays(7));
+                task.setCreatedBy(reference);
+                entityManager.persist(task);
+            }
+        });
+        return new Run(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), EXECUTIONS.get());
+    }
+    
+    private record Run(long millis, long executions) {
+    }
+    
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+        
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    // One afterQuery per statement execution; a JDBC batch is a single execution
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .listener(new QueryExecutionListener() {
+                                @Override
+                                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                }
+                                
+                                @Override
+                                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                    EXECUTIONS.incrementAndGet();
+                                }
+                            })
+                            .build();
+                }
+            };
+        }
+    }
+}
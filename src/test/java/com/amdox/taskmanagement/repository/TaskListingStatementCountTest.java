@@ -0,0 +1,122 @@
+package com.amdox.taskmanagement.repository;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.PageResponse;
+import com.amdox.taskmanagement.dto.TaskFilter;
+import com.amdox.taskmanagement.dto.TaskResponse;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.service.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Task listings are a single projection query with the assignee and creator joined in,
+ * so the number of statements must not grow with the number of rows returned.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskListingStatementCountTest extends PostgresIntegrationTest {
+    
+    private static final int TASKS = 1000;
+    private static final int USERS = 50;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (userRepository.findByEmail("listing0@example.com").isPresent()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                User user = new User();
+                user.setUsername("listing" + i);
+                user.setEmail("listing" + i + "@example.com");
+                user.setPassword("x");
+                user.setFullName("User " + i);
+                users.add(user);
+            }
+            userRepository.saveAll(users);
+            
+            // Distinct assignees and creators, so per-row user loads would show up as extra statements
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < TASKS; i++) {
+                Task task = new Task();
+                task.setTitle("Task " + i);
+                task.setDeadline(LocalDateTime.now().plusDays(i % 30));
+                task.setAssignedTo(users.get(i % USERS));
+                task.setCreatedBy(users.get((i + 1) % USERS));
+                tasks.add(task);
+            }
+            taskRepository.saveAll(tasks);
+        });
+    }
+    
+    @Test
+    void listingOneThousandTasksRunsAsManyStatementsAsListingTen() {
+        long ten = statementsToList(10);
+        long thousand = statementsToList(TASKS);
+        
+        assertThat(thousand).isEqualTo(ten).isEqualTo(1);
+    }
+    
+    @Test
+    void pagingThroughAllTasksRunsOneStatementPerPage() {
+        TaskFilter filter = new TaskFilter();
+        filter.setSize(200);
+        int pages = 0;
+        int rows = 0;
+        long total = taskRepository.count();
+        
+        statistics.clear();
+        PageResponse<TaskResponse> page;
+        do {
+            page = taskService.getAllTasks(filter);
+            pages++;
+            rows += page.getItems().size();
+            filter.setCursor(page.getNextCursor());
+        } while (page.isHasMore());
+        
+        assertThat(rows).isEqualTo(total);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages);
+    }
+    
+    private long statementsToList(int limit) {
+        statistics.clear();
+        List<TaskResponse> tasks = transactionTemplate.execute(status ->
+                taskRepository.findPage(new TaskFilter(), null, null, limit));
+        
+        assertThat(tasks).hasSize(limit)
+                .allSatisfy(task -> assertThat(task.getCreatedByName()).isNotNull());
+        return statistics.getPrepareStatementCount();
+    }
+}
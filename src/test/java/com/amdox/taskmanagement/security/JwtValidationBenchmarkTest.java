@@ -0,0 +1,23 @@
+package com.amdox.taskmanagement.security;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link JwtValidationBenchmark} through JMH as part of {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class JwtValidationBenchmarkTest {
+    
+    @Test
+    void runBenchmark() throws Exception {
+        assertThat(new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getName())
+                .build())
+                .run()).isNotEmpty();
+    }
+}
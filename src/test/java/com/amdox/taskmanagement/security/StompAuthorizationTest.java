@@ -0,0 +1,158 @@
+package com.amdox.taskmanagement.security;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * /ws is open at the HTTP layer, so the STOMP interceptor is what keeps anonymous clients
+ * out and authenticated ones on their own /user destinations.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "scheduling.enabled=false")
+class StompAuthorizationTest extends PostgresIntegrationTest {
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+    
+    private WebSocketStompClient stompClient;
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        stompClient = new WebSocketStompClient(new SockJsClient(
+                List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        user = userRepository.findByEmail("stomp-auth@example.com").orElseGet(() -> {
+            User created = new User();
+            created.setUsername("stomp-auth");
+            created.setEmail("stomp-auth@example.com");
+            created.setPassword("x");
+            created.setFullName("Stomp Auth");
+            return userRepository.save(created);
+        });
+    }
+    
+    @AfterEach
+    void tearDown() {
+        stompClient.stop();
+    }
+    
+    @Test
+    void connectWithoutTokenIsRefused() {
+        assertThatThrownBy(() -> connect(new StompHeaders()).get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+    }
+    
+    @Test
+    void connectWithForgedTokenIsRefused() {
+        StompHeaders headers = new StompHeaders();
+        headers.add("Authorization", "Bearer " + jwtUtil.generateToken(UserPrincipal.from(user)) + "x");
+        assertThatThrownBy(() -> connect(headers).get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+    }
+    
+    @Test
+    void subscribingOutsideUserDestinationsIsRefused() throws Exception {
+        ErrorRecorder errors = new ErrorRecorder();
+        StompSession session = connect(bearer(), errors).get(10, TimeUnit.SECONDS);
+        
+        session.subscribe("/topic/unresolved-user-destination", new Collector(new LinkedBlockingQueue<>()));
+        
+        StompHeaders error = errors.frames.poll(10, TimeUnit.SECONDS);
+        assertThat(error).as("ERROR frame for the refused SUBSCRIBE").isNotNull();
+    }
+    
+    @Test
+    void ownUserQueueReceivesPushes() throws Exception {
+        StompSession session = connect(bearer()).get(10, TimeUnit.SECONDS);
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        session.subscribe("/user/queue/notifications", new Collector(received));
+        
+        // The simple broker sends no RECEIPT, so push until the asynchronous SUBSCRIBE has landed
+        Object payload = null;
+        for (int attempt = 0; attempt < 50 && payload == null; attempt++) {
+            messagingTemplate.convertAndSendToUser(user.getUsername(), "/queue/notifications", Map.of("message", "hello"));
+            payload = received.poll(200, TimeUnit.MILLISECONDS);
+        }
+        assertThat(payload).isEqualTo(Map.of("message", "hello"));
+        session.disconnect();
+    }
+    
+    private StompHeaders bearer() {
+        StompHeaders headers = new StompHeaders();
+        headers.add("Authorization", "Bearer " + jwtUtil.generateToken(UserPrincipal.from(user)));
+        return headers;
+    }
+    
+    private CompletableFuture<StompSession> connect(StompHeaders headers) {
+        return connect(headers, new StompSessionHandlerAdapter() {
+        });
+    }
+    
+    private CompletableFuture<StompSession> connect(StompHeaders headers, StompSessionHandlerAdapter handler) {
+        return stompClient.connectAsync("http://localhost:" + port + "/ws", new WebSocketHttpHeaders(), headers, handler);
+    }
+    
+    private static class ErrorRecorder extends StompSessionHandlerAdapter {
+        
+        private final BlockingQueue<StompHeaders> frames = new LinkedBlockingQueue<>();
+        
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            frames.add(headers);
+        }
+    }
+    
+    private record Collector(BlockingQueue<Object> received) implements StompFrameHandler {
+        
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+        
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            received.add(payload);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.AttachmentResponse;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.repository.AttachmentRepository;
+import com.amdox.taskmanagement.repository.TaskRepository;
+import com.amdox.taskmanagement.repository.UserRepository;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Content is shared by every attachment that uploads it and removed with the last one. The
+ * second service instance stands in for another node: it shares the database and the store,
+ * but nothing in memory.
+ */
+class AttachmentServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private AttachmentService attachmentService;
+    
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Value("${attachments.storage-dir}")
+    private Path storageDir;
+    
+    @Test
+    void sharedContentSurvivesConcurrentUploadAndDeleteOnTwoNodes() throws Exception {
+        AttachmentService otherNode = new AttachmentService(attachmentRepository, taskRepository, userRepository,
+                transactionTemplate, storageDir.toString());
+        otherNode.init();
+        AttachmentService[] nodes = {attachmentService, otherNode};
+        
+        UserPrincipal uploader = UserPrincipal.from(createUser(User.Role.EDITOR));
+        Long taskId = taskService.createTask(TaskServiceTest.taskRequest("Shared attachment"), uploader).getId();
+        byte[] content = ("content " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+        
+        AttachmentResponse current = nodes[0].upload(taskId, file(content), uploader);
+        String sha256 = current.getSha256();
+        Path stored = storageDir.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                // The last attachment with the content is deleted on one node as the same content
+                // arrives on the other; the file must outlive the delete
+                AttachmentService deleting = nodes[round % 2];
+                AttachmentService uploading = nodes[(round + 1) % 2];
+                Long deletedId = current.getId();
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<?> delete = executor.submit(() -> {
+                    start.await();
+                    deleting.deleteAttachment(deletedId, uploader);
+                    return null;
+                });
+                Future<AttachmentResponse> upload = executor.submit(() -> {
+                    start.await();
+                    return uploading.upload(taskId, file(content), uploader);
+                });
+                delete.get(30, TimeUnit.SECONDS);
+                current = upload.get(30, TimeUnit.SECONDS);
+                
+                assertThat(current.getSha256()).isEqualTo(sha256);
+                assertThat(attachmentRepository.countBySha256(sha256)).isEqualTo(1);
+                assertThat(Files.readAllBytes(attachmentService.getFile(current.getId()).path()))
+                        .as("content after round %d", round)
+                        .isEqualTo(content);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        nodes[1].deleteAttachment(current.getId(), uploader);
+        assertThat(stored).doesNotExist();
+    }
+    
+    private static MockMultipartFile file(byte[] content) throws IOException {
+        return new MockMultipartFile("file", "shared.txt", "text/plain", content);
+    }
+}
@@ -0,0 +1,96 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.CommentRequest;
+import com.amdox.taskmanagement.dto.CommentResponse;
+import com.amdox.taskmanagement.dto.PageResponse;
+import com.amdox.taskmanagement.dto.TaskResponse;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommentServiceTest extends PostgresIntegrationTest {
+    
+    private static final int PAGE_SIZE = 3;
+    
+    @Autowired
+    private CommentService commentService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void addedCommentResponseCarriesItsCreationTime() {
+        UserPrincipal author = UserPrincipal.from(createUser(User.Role.EDITOR));
+        TaskResponse task = taskService.createTask(TaskServiceTest.taskRequest("Review the design"), author);
+        
+        CommentResponse comment = addComment(task.getId(), "Looks good", author);
+        
+        assertThat(comment.getId()).isNotNull();
+        assertThat(comment.getCreatedAt()).isNotNull();
+    }
+    
+    @Test
+    void sincePollPagesThroughAnOverlapWindowLargerThanAPage() {
+        UserPrincipal author = UserPrincipal.from(createUser(User.Role.EDITOR));
+        Long taskId = taskService.createTask(TaskServiceTest.taskRequest("Busy thread"), author).getId();
+        for (int i = 0; i < 7; i++) {
+            addComment(taskId, "comment " + i, author);
+        }
+        Feed seen = drain(taskId, null, PAGE_SIZE);
+        assertThat(seen.items()).hasSize(7);
+        CommentResponse lastSeen = seen.items().get(6);
+        
+        // Committed after the client's poll but stamped before the position it has reached
+        jdbcTemplate.update("INSERT INTO comments (content, task_id, user_id, created_at) VALUES (?, ?, ?, ?)",
+                "late", taskId, author.getId(), lastSeen.getCreatedAt().minusSeconds(1));
+        CommentResponse added = addComment(taskId, "new", author);
+        
+        // All 9 comments sit inside the 30 s overlap window: three pages of re-reads before the new one
+        Feed polled = drain(taskId, seen.cursor(), PAGE_SIZE);
+        assertThat(polled.items()).extracting(CommentResponse::getContent).contains("late", "new");
+        assertThat(polled.cursor()).isEqualTo(CursorCodec.encode(added.getCreatedAt(), added.getId()));
+        
+        // Nothing new: the poll ends where it started instead of moving back into the window
+        Feed idle = drain(taskId, polled.cursor(), PAGE_SIZE);
+        assertThat(idle.cursor()).isEqualTo(polled.cursor());
+        assertThat(idle.pages()).isEqualTo(polled.pages());
+    }
+    
+    private CommentResponse addComment(Long taskId, String content, UserPrincipal author) {
+        CommentRequest request = new CommentRequest();
+        request.setTaskId(taskId);
+        request.setContent(content);
+        return commentService.addComment(request, author);
+    }
+    
+    // Reads the feed from the start with cursor, or polls with since and keeps passing the cursor back as since
+    private Feed drain(Long taskId, String since, int size) {
+        List<CommentResponse> items = new ArrayList<>();
+        PageResponse<CommentResponse> page = commentService.getCommentsByTask(taskId, null, since, size);
+        int pages = 1;
+        items.addAll(page.getItems());
+        while (page.isHasMore()) {
+            assertThat(pages).as("pages before the feed caught up").isLessThan(20);
+            page = since == null
+                    ? commentService.getCommentsByTask(taskId, page.getNextCursor(), null, size)
+                    : commentService.getCommentsByTask(taskId, null, page.getNextCursor(), size);
+            pages++;
+            items.addAll(page.getItems());
+        }
+        return new Feed(items, page.getNextCursor(), pages);
+    }
+    
+    private record Feed(List<CommentResponse> items, String cursor, int pages) {
+    }
+}
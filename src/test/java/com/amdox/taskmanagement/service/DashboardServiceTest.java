@@ -0,0 +1,105 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.DashboardStats;
+import com.amdox.taskmanagement.dto.TaskPatchRequest;
+import com.amdox.taskmanagement.dto.TaskRequest;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The dashboard reads materialized views, so it lags writes until the next refresh and must
+ * then agree with the tasks table. Totals are compared with the same aggregates run directly
+ * on tasks, since other tests share the database.
+ */
+class DashboardServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void rollupsCatchUpWithTasksOnRefresh() {
+        UserPrincipal creator = UserPrincipal.from(createUser(User.Role.EDITOR));
+        User assignee = createUser(User.Role.VIEWER);
+        String category = "dash-" + UUID.randomUUID();
+        dashboardService.refreshRollups();
+        
+        createTask(category, assignee, LocalDateTime.now().plusDays(2), creator);
+        createTask(category, assignee, LocalDateTime.now().plusDays(3), creator);
+        // Overdue: open with its deadline already passed
+        createTask(category, assignee, LocalDateTime.now().minusDays(1), creator);
+        setStatus(createTask(category, assignee, LocalDateTime.now().plusDays(4), creator), Task.Status.IN_PROGRESS, creator);
+        setStatus(createTask(category, assignee, LocalDateTime.now().plusDays(5), creator), Task.Status.COMPLETED, creator);
+        
+        assertThat(dashboardService.getDashboard(null, 100).getByCategory())
+                .noneMatch(count -> count.getCategory().equals(category));
+        
+        dashboardService.refreshRollups();
+        DashboardStats stats = dashboardService.getDashboard(null, 100);
+        
+        assertThat(stats.getByCategory()).filteredOn(count -> count.getCategory().equals(category))
+                .singleElement()
+                .satisfies(count -> {
+                    assertThat(count.getTotal()).isEqualTo(5);
+                    assertThat(count.getOpen()).isEqualTo(4);
+                });
+        assertThat(stats.getWorkload()).filteredOn(workload -> workload.getUserId().equals(assignee.getId()))
+                .singleElement()
+                .satisfies(workload -> {
+                    assertThat(workload.getFullName()).isEqualTo(assignee.getFullName());
+                    assertThat(workload.getOpen()).isEqualTo(4);
+                    assertThat(workload.getInProgress()).isEqualTo(1);
+                    assertThat(workload.getOverdue()).isEqualTo(1);
+                    assertThat(workload.getCompletedLast30Days()).isEqualTo(1);
+                });
+        
+        assertThat(stats.getTotalTasks()).isEqualTo(count("SELECT count(*) FROM tasks"));
+        assertThat(stats.getOverdueTasks()).isEqualTo(
+                count("SELECT count(*) FROM tasks WHERE status <> 'COMPLETED' AND deadline < LOCALTIMESTAMP"));
+        Map<String, Long> byStatus = jdbcTemplate.queryForList("SELECT status, count(*) AS n FROM tasks GROUP BY status")
+                .stream()
+                .collect(Collectors.toMap(row -> (String) row.get("status"), row -> (Long) row.get("n")));
+        assertThat(stats.getByStatus()).containsAllEntriesOf(byStatus);
+        assertThat(stats.getThroughput()).filteredOn(day -> day.getDay().equals(LocalDate.now()))
+                .singleElement()
+                .satisfies(day -> assertThat(day.getCompleted()).isEqualTo(
+                        count("SELECT count(*) FROM tasks WHERE CAST(completed_at AS DATE) = CURRENT_DATE")));
+        assertThat(stats.getRefreshedAt()).isAfter(LocalDateTime.now().minusMinutes(1));
+    }
+    
+    private Long createTask(String category, User assignee, LocalDateTime deadline, UserPrincipal creator) {
+        TaskRequest request = TaskServiceTest.taskRequest("Dashboard task");
+        request.setCategory(category);
+        request.setAssignedToId(assignee.getId());
+        request.setDeadline(deadline);
+        return taskService.createTask(request, creator).getId();
+    }
+    
+    private void setStatus(Long taskId, Task.Status status, UserPrincipal creator) {
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setStatus(status);
+        taskService.patchTask(taskId, patch, null, creator);
+    }
+    
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
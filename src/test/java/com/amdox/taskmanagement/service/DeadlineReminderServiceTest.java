@@ -0,0 +1,142 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.TaskPatchRequest;
+import com.amdox.taskmanagement.dto.TaskRequest;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.repository.TaskRepository;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A reminder is claimed by stamping reminder_sent_at with UPDATE ... RETURNING, so a run on a
+ * restarted node, or two runs at once, never remind the same task twice. Each extra
+ * {@link DeadlineReminderService} instance stands in for another process.
+ */
+class DeadlineReminderServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private DeadlineReminderService reminderService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private User creator;
+    
+    private User assignee;
+    
+    @BeforeEach
+    void setUp() {
+        creator = createUser(User.Role.EDITOR);
+        assignee = createUser(User.Role.VIEWER);
+    }
+    
+    @Test
+    void runAfterRestartDoesNotRemindAgain() {
+        Long dueSoon = createTask("Due in two hours", LocalDateTime.now().plusHours(2));
+        Long dueLater = createTask("Due in five hours", LocalDateTime.now().plusHours(5));
+        Long notDue = createTask("Due in three days", LocalDateTime.now().plusDays(3));
+        
+        reminderService.sendReminders();
+        
+        assertThat(reminders()).singleElement().asString().startsWith("2 tasks due within 24 hours: ");
+        assertThat(digestEmails()).isEqualTo(1);
+        assertThat(remindedTasks()).containsExactlyInAnyOrder(dueSoon, dueLater).doesNotContain(notDue);
+        
+        DeadlineReminderService restarted = newProcess();
+        try {
+            restarted.sendReminders();
+        } finally {
+            restarted.stop();
+        }
+        
+        assertThat(reminders()).hasSize(1);
+        assertThat(digestEmails()).isEqualTo(1);
+    }
+    
+    @Test
+    void concurrentRunsClaimEachTaskOnce() {
+        createTask("Raced task 1", LocalDateTime.now().plusHours(3));
+        createTask("Raced task 2", LocalDateTime.now().plusHours(4));
+        DeadlineReminderService otherNode = newProcess();
+        
+        try {
+            CompletableFuture.allOf(
+                    CompletableFuture.runAsync(reminderService::sendReminders),
+                    CompletableFuture.runAsync(otherNode::sendReminders)).join();
+        } finally {
+            otherNode.stop();
+        }
+        
+        assertThat(reminders()).hasSize(1);
+        assertThat(digestEmails()).isEqualTo(1);
+    }
+    
+    @Test
+    void movedDeadlineIsRemindedAgain() {
+        Long taskId = createTask("Moved deadline", LocalDateTime.now().plusHours(2));
+        reminderService.sendReminders();
+        
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setDeadline(LocalDateTime.now().plusHours(6));
+        taskService.patchTask(taskId, patch, null, UserPrincipal.from(creator));
+        reminderService.sendReminders();
+        
+        assertThat(reminders()).hasSize(2).allSatisfy(message -> assertThat(message).startsWith("Task due soon: "));
+    }
+    
+    private DeadlineReminderService newProcess() {
+        DeadlineReminderService service = new DeadlineReminderService(taskRepository, outboxService, transactionTemplate, 2);
+        ReflectionTestUtils.setField(service, "windowHours", 24);
+        ReflectionTestUtils.setField(service, "usersPerChunk", 200);
+        return service;
+    }
+    
+    private Long createTask(String title, LocalDateTime deadline) {
+        TaskRequest request = TaskServiceTest.taskRequest(title);
+        request.setDeadline(deadline);
+        request.setAssignedToId(assignee.getId());
+        return taskService.createTask(request, UserPrincipal.from(creator)).getId();
+    }
+    
+    private List<String> reminders() {
+        return jdbcTemplate.queryForList(
+                "SELECT message FROM outbox_events WHERE user_id = ? AND notification_type = 'DEADLINE_REMINDER'",
+                String.class, assignee.getId());
+    }
+    
+    private int digestEmails() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE user_id = ? AND type = 'TASK_DIGEST_EMAIL'",
+                Integer.class, assignee.getId());
+    }
+    
+    private List<Long> remindedTasks() {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM tasks WHERE assigned_to_id = ? AND reminder_sent_at IS NOT NULL",
+                Long.class, assignee.getId());
+    }
+}
@@ -0,0 +1,218 @@
+package com.amdox.taskmanagement.service;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the dispatcher against an in-process SMTP server (GreenMail), so batching, retries
+ * and rejections are checked by what actually arrives over SMTP. The worker is started by
+ * hand after enqueueing where a test needs the queue filled first.
+ */
+class MailDispatcherTest {
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private final Outcomes outcomes = new Outcomes();
+    
+    private int port;
+    
+    private GreenMail smtpServer;
+    
+    private MailDispatcher dispatcher;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        smtpServer = new GreenMail(new ServerSetup(port, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        smtpServer.stop();
+    }
+    
+    @Test
+    void queuedMessagesGoOutInBatches() throws InterruptedException {
+        smtpServer.start();
+        dispatcher = newDispatcher(100, 5, 3);
+        for (int i = 0; i < 12; i++) {
+            dispatcher.enqueue(message("user" + i + "@example.com"), outcomes);
+        }
+        
+        dispatcher.start();
+        
+        assertThat(smtpServer.waitForIncomingEmail(5000, 12)).isTrue();
+        assertThat(outcomes.awaitDelivered(12)).isTrue();
+        assertThat(Arrays.stream(smtpServer.getReceivedMessages()).map(MailDispatcherTest::recipient))
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 12)
+                        .mapToObj(i -> "user" + i + "@example.com")
+                        .toList());
+        // One send, and so one SMTP connection, per batch of five
+        assertThat(meterRegistry.timer("mail.send.latency").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("mail.sent").count()).isEqualTo(12);
+        assertThat(outcomes.failed).hasValue(0);
+    }
+    
+    @Test
+    void failedBatchIsRetriedOnceTheServerIsBack() throws InterruptedException {
+        dispatcher = newDispatcher(100, 50, 10);
+        dispatcher.enqueue(message("first@example.com"), outcomes);
+        dispatcher.enqueue(message("second@example.com"), outcomes);
+        dispatcher.start();
+        
+        // The first attempt finds nothing listening
+        awaitAttempts(1);
+        smtpServer.start();
+        
+        assertThat(outcomes.awaitDelivered(2)).isTrue();
+        assertThat(Arrays.stream(smtpServer.getReceivedMessages()).map(MailDispatcherTest::recipient))
+                .containsExactlyInAnyOrder("first@example.com", "second@example.com");
+        assertThat(meterRegistry.counter("mail.failed").count()).isZero();
+        assertThat(outcomes.failed).hasValue(0);
+    }
+    
+    @Test
+    void messagesAreGivenUpAfterTheLastAttempt() throws InterruptedException {
+        dispatcher = newDispatcher(100, 50, 3);
+        dispatcher.enqueue(message("nobody@example.com"), outcomes);
+        dispatcher.start();
+        
+        assertThat(outcomes.awaitFailed(1)).isTrue();
+        assertThat(meterRegistry.timer("mail.send.latency").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("mail.failed").count()).isEqualTo(1);
+        assertThat(outcomes.delivered).hasValue(0);
+    }
+    
+    @Test
+    void fullQueueRejectsAndNeverSendsTheMessage() throws InterruptedException {
+        smtpServer.start();
+        dispatcher = newDispatcher(2, 50, 3);
+        
+        assertThat(dispatcher.enqueue(message("kept1@example.com"), outcomes)).isTrue();
+        assertThat(dispatcher.enqueue(message("kept2@example.com"), outcomes)).isTrue();
+        assertThat(dispatcher.enqueue(message("dropped@example.com"), outcomes)).isFalse();
+        assertThat(outcomes.rejected).hasValue(1);
+        assertThat(meterRegistry.counter("mail.rejected").count()).isEqualTo(1);
+        
+        dispatcher.start();
+        
+        assertThat(outcomes.awaitDelivered(2)).isTrue();
+        assertThat(Arrays.stream(smtpServer.getReceivedMessages()).map(MailDispatcherTest::recipient))
+                .containsExactlyInAnyOrder("kept1@example.com", "kept2@example.com");
+    }
+    
+    private MailDispatcher newDispatcher(int queueCapacity, int batchSize, int maxAttempts) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(port);
+        Properties properties = new Properties();
+        properties.setProperty("mail.smtp.connectiontimeout", "2000");
+        properties.setProperty("mail.smtp.timeout", "2000");
+        mailSender.setJavaMailProperties(properties);
+        
+        // The worker is not started here; tests call start() when the queue is ready
+        MailDispatcher mailDispatcher = new MailDispatcher(mailSender, meterRegistry, queueCapacity);
+        ReflectionTestUtils.setField(mailDispatcher, "batchSize", batchSize);
+        ReflectionTestUtils.setField(mailDispatcher, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(mailDispatcher, "initialBackoffMs", 200L);
+        ReflectionTestUtils.setField(mailDispatcher, "maxBackoffMs", 400L);
+        ReflectionTestUtils.setField(mailDispatcher, "shutdownTimeoutMs", 5000L);
+        return mailDispatcher;
+    }
+    
+    private void awaitAttempts(long attempts) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.timer("mail.send.latency").count() < attempts) {
+            assertThat(System.nanoTime()).as("send attempts").isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+    
+    private static SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("tasks@example.com");
+        message.setTo(to);
+        message.setSubject("Task Updates");
+        message.setText("Hello " + to);
+        return message;
+    }
+    
+    private static String recipient(MimeMessage message) {
+        try {
+            return message.getRecipients(Message.RecipientType.TO)[0].toString();
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static class Outcomes implements MailDispatcher.DeliveryListener {
+        
+        private final AtomicInteger delivered = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        
+        @Override
+        public synchronized void delivered() {
+            delivered.incrementAndGet();
+            notifyAll();
+        }
+        
+        @Override
+        public synchronized void rejected() {
+            rejected.incrementAndGet();
+            notifyAll();
+        }
+        
+        @Override
+        public synchronized void failed() {
+            failed.incrementAndGet();
+            notifyAll();
+        }
+        
+        boolean awaitDelivered(int count) throws InterruptedException {
+            return await(delivered, count);
+        }
+        
+        boolean awaitFailed(int count) throws InterruptedException {
+            return await(failed, count);
+        }
+        
+        private synchronized boolean await(AtomicInteger outcome, int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (outcome.get() < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+            return true;
+        }
+    }
+}
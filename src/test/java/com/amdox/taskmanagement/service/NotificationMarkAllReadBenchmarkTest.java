@@ -0,0 +1,113 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.entity.Notification;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.repository.UserRepository;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Marks benchmark.notifications.rows (default 100,000) unread notifications as read, once the
+ * way PUT /api/notifications/read-all used to (load every row, dirty it, flush) and once
+ * through NotificationService.markAllAsRead's single UPDATE, and logs both timings. The loop
+ * issues one UPDATE per row (sent in JDBC batches); the set-based path issues none of those.
+ */
+@Slf4j
+@Tag("benchmark")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class NotificationMarkAllReadBenchmarkTest extends PostgresIntegrationTest {
+    
+    private static final int ROWS = Integer.getInteger("benchmark.notifications.rows", 100_000);
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void setBasedUpdateAgainstEntityLoop() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        User loopUser = userWithUnreadNotifications("read-all-loop");
+        User bulkUser = userWithUnreadNotifications("read-all-bulk");
+        
+        statistics.clear();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Notification> unread = entityManager.createQuery(
+                            "SELECT n FROM Notification n WHERE n.user.id = ?1 AND n.isRead = false", Notification.class)
+                    .setParameter(1, loopUser.getId())
+                    .getResultList();
+            LocalDateTime now = LocalDateTime.now();
+            unread.forEach(notification -> {
+                notification.setRead(true);
+                notification.setReadAt(now);
+            });
+        });
+        long loopMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long loopRowUpdates = statistics.getEntityUpdateCount();
+        
+        statistics.clear();
+        start = System.nanoTime();
+        int updated = notificationService.markAllAsRead(UserPrincipal.from(bulkUser));
+        long bulkMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long bulkRowUpdates = statistics.getEntityUpdateCount();
+        
+        log.info("Marking {} notifications read: entity loop {} ms ({} row UPDATEs), set-based {} ms ({} row UPDATEs)",
+                ROWS, loopMillis, loopRowUpdates, bulkMillis, bulkRowUpdates);
+        assertThat(updated).isEqualTo(ROWS);
+        assertThat(unreadCount(loopUser)).isZero();
+        assertThat(unreadCount(bulkUser)).isZero();
+        assertThat(loopRowUpdates).isEqualTo(ROWS);
+        assertThat(bulkRowUpdates).isZero();
+    }
+    
+    private User userWithUnreadNotifications(String username) {
+        User user = new User();
+        user.setUsername(username + "-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword("x");
+        user.setFullName(username);
+        userRepository.save(user);
+        jdbcTemplate.update("INSERT INTO notifications (id, message, type, user_id, is_read, created_at) " +
+                        "SELECT nextval('notifications_seq'), 'Notification ' || g, 'TASK_UPDATED', ?, false, LOCALTIMESTAMP " +
+                        "FROM generate_series(1, ?) g",
+                user.getId(), ROWS);
+        jdbcTemplate.execute("ANALYZE notifications");
+        return user;
+    }
+    
+    private long unreadCount(User user) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE user_id = ? AND is_read = false", Long.class, user.getId());
+    }
+}
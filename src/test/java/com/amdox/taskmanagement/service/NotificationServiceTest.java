@@ -0,0 +1,40 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void unreadCountSeesCounterChangesMadeByOtherNodes() {
+        User user = createUser(User.Role.VIEWER);
+        assertThat(notificationService.getUnreadCount(user.getId())).isZero();
+        
+        // Another node counting new notifications writes only the shared counter row
+        addUnreadElsewhere(user, 3);
+        assertThat(notificationService.getUnreadCount(user.getId())).isEqualTo(3);
+        addUnreadElsewhere(user, 2);
+        assertThat(notificationService.getUnreadCount(user.getId())).isEqualTo(5);
+        
+        notificationService.markAllAsRead(UserPrincipal.from(user));
+        assertThat(notificationService.getUnreadCount(user.getId())).isZero();
+    }
+    
+    private void addUnreadElsewhere(User user, long delta) {
+        jdbcTemplate.update("INSERT INTO notification_counters (user_id, unread_count) VALUES (?, ?) "
+                + "ON CONFLICT (user_id) DO UPDATE SET unread_count = notification_counters.unread_count + ?",
+                user.getId(), delta, delta);
+    }
+}
@@ -0,0 +1,101 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.TagCount;
+import com.amdox.taskmanagement.dto.TaskFilter;
+import com.amdox.taskmanagement.dto.TaskPatchRequest;
+import com.amdox.taskmanagement.dto.TaskRequest;
+import com.amdox.taskmanagement.dto.TaskResponse;
+import com.amdox.taskmanagement.entity.Tag;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tags are derived from tasks.tags by a trigger and served from a periodically rebuilt
+ * snapshot; the tests rebuild it by hand. Every tag starts with a prefix of the test's own.
+ */
+class TagServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private TagService tagService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    private UserPrincipal author;
+    
+    private String prefix;
+    
+    @BeforeEach
+    void setUp() {
+        author = UserPrincipal.from(createUser(User.Role.EDITOR));
+        prefix = "t" + UUID.randomUUID().toString().replaceAll("[^a-f]", "") + "-";
+    }
+    
+    @Test
+    void countsAndAutocompleteFollowRetagging() {
+        Long retagged = createTask(" " + prefix.toUpperCase() + "Alpha , " + prefix + "beta, " + prefix + "alpha");
+        createTask(prefix + "alpha");
+        tagService.refreshIndex();
+        
+        // Trimmed, lower-cased and counted once per task
+        assertThat(tagService.autocomplete(prefix.toUpperCase(), 10))
+                .extracting(TagCount::getName, TagCount::getCount)
+                .containsExactly(tuple(prefix + "alpha", 2L), tuple(prefix + "beta", 1L));
+        
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setTags(prefix + "gamma");
+        taskService.patchTask(retagged, patch, null, author);
+        tagService.refreshIndex();
+        
+        assertThat(tagService.autocomplete(prefix, 10))
+                .extracting(TagCount::getName, TagCount::getCount)
+                .containsExactly(tuple(prefix + "alpha", 1L), tuple(prefix + "gamma", 1L));
+        assertThat(tagService.autocomplete(prefix + "g", 10))
+                .extracting(TagCount::getName)
+                .containsExactly(prefix + "gamma");
+    }
+    
+    @Test
+    void autocompleteReturnsTheMostUsedMatchesFirst() {
+        createTask(prefix + "rare");
+        createTask(prefix + "common, " + prefix + "rare");
+        createTask(prefix + "common");
+        createTask(prefix + "common");
+        tagService.refreshIndex();
+        
+        assertThat(tagService.autocomplete(prefix, 1))
+                .extracting(TagCount::getName, TagCount::getCount)
+                .containsExactly(tuple(prefix + "common", 3L));
+    }
+    
+    @Test
+    void overlongTagsAreCutAsTheDatabaseCutsThem() {
+        String longTag = prefix + "x".repeat(100);
+        Long taskId = createTask(longTag);
+        tagService.refreshIndex();
+        
+        String stored = longTag.substring(0, Tag.MAX_NAME_LENGTH);
+        assertThat(tagService.autocomplete(prefix, 10)).extracting(TagCount::getName).containsExactly(stored);
+        // Filtering and autocomplete by the full name the client sent still find it
+        assertThat(tagService.autocomplete(longTag, 10)).extracting(TagCount::getName).containsExactly(stored);
+        TaskFilter filter = new TaskFilter();
+        filter.setTag(List.of(longTag.toUpperCase()));
+        assertThat(taskService.getAllTasks(filter).getItems()).extracting(TaskResponse::getId).containsExactly(taskId);
+    }
+    
+    private Long createTask(String tags) {
+        TaskRequest request = TaskServiceTest.taskRequest("Tagged task");
+        request.setTags(tags);
+        return taskService.createTask(request, author).getId();
+    }
+}
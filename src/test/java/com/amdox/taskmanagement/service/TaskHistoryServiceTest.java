@@ -0,0 +1,108 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.PageResponse;
+import com.amdox.taskmanagement.dto.TaskEventResponse;
+import com.amdox.taskmanagement.dto.TaskPatchRequest;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.TaskEvent;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TaskHistoryServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private TaskHistoryService taskHistoryService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void historyRecordsEveryChangeInVersionOrder() {
+        UserPrincipal author = UserPrincipal.from(createUser(User.Role.EDITOR));
+        Long taskId = taskService.createTask(TaskServiceTest.taskRequest("First title"), author).getId();
+        patch(taskId, patch -> patch.setTitle("Second title"), author);
+        patch(taskId, patch -> patch.setStatus(Task.Status.IN_PROGRESS), author);
+        taskService.deleteTask(taskId, author);
+        
+        // Page size 3 puts the cursor inside the history
+        List<TaskEventResponse> events = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageResponse<TaskEventResponse> page = taskHistoryService.getHistory(taskId, cursor, 3);
+            events.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        
+        assertThat(events).extracting(TaskEventResponse::getType, TaskEventResponse::getTaskVersion)
+                .containsExactly(
+                        tuple(TaskEvent.EventType.CREATED, 0L),
+                        tuple(TaskEvent.EventType.UPDATED, 1L),
+                        tuple(TaskEvent.EventType.UPDATED, 2L),
+                        tuple(TaskEvent.EventType.DELETED, 2L));
+        assertThat(events.get(1).getChanges()).isEqualTo("{\"title\":\"Second title\"}");
+        
+        Map<String, Object> state = taskHistoryService.getStateAt(taskId, LocalDateTime.now());
+        assertThat(state).containsEntry("title", "Second title")
+                .containsEntry("status", "IN_PROGRESS")
+                .containsEntry("version", 2L)
+                .containsEntry("deleted", true);
+    }
+    
+    @Test
+    void replayFollowsTaskVersionNotEventId() {
+        // Another node's pooled id block can give a later change a smaller id; the history has
+        // no foreign key to tasks, and an id drawn from the sequence is never handed out again
+        long taskId = jdbcTemplate.queryForObject("SELECT nextval('tasks_seq')", Long.class);
+        long smallId = nextEventId();
+        long largeId = nextEventId();
+        long lastId = nextEventId();
+        LocalDateTime created = LocalDateTime.now().minusMinutes(10).truncatedTo(ChronoUnit.MICROS);
+        insertEvent(largeId, taskId, "CREATED", 0, created, "{\"title\":\"first\",\"status\":\"TODO\"}");
+        insertEvent(smallId, taskId, "UPDATED", 1, created.plusMinutes(1), "{\"title\":\"second\"}");
+        insertEvent(lastId, taskId, "UPDATED", 2, created.plusMinutes(2), "{\"status\":\"COMPLETED\"}");
+        
+        assertThat(taskHistoryService.getHistory(taskId, null, 10).getItems())
+                .extracting(TaskEventResponse::getId)
+                .containsExactly(largeId, smallId, lastId);
+        assertThat(taskHistoryService.getStateAt(taskId, created.plusSeconds(90)))
+                .containsEntry("title", "second")
+                .containsEntry("status", "TODO")
+                .containsEntry("version", 1L);
+        assertThat(taskHistoryService.getStateAt(taskId, created.plusMinutes(5)))
+                .containsEntry("title", "second")
+                .containsEntry("status", "COMPLETED")
+                .containsEntry("version", 2L);
+    }
+    
+    private void patch(Long taskId, Consumer<TaskPatchRequest> settings, UserPrincipal author) {
+        TaskPatchRequest patch = new TaskPatchRequest();
+        settings.accept(patch);
+        taskService.patchTask(taskId, patch, null, author);
+    }
+    
+    private long nextEventId() {
+        return jdbcTemplate.queryForObject("SELECT nextval('task_events_seq')", Long.class);
+    }
+    
+    private void insertEvent(long id, long taskId, String type, long version, LocalDateTime occurredAt, String changes) {
+        jdbcTemplate.update("INSERT INTO task_events (id, task_id, type, task_version, occurred_at, changes) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", id, taskId, type, version, occurredAt, changes);
+    }
+}
@@ -0,0 +1,125 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.TaskFilter;
+import com.amdox.taskmanagement.dto.TaskImportResult;
+import com.amdox.taskmanagement.dto.TaskResponse;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TaskImportExportServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private TaskImportExportService importExportService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void rowRejectedByTheDatabaseDoesNotSinkItsChunk() {
+        User creator = createUser(User.Role.EDITOR);
+        String deadline = LocalDateTime.now().plusDays(5).withNano(0).toString();
+        // PostgreSQL refuses NUL in text, so row 3 passes bean validation and fails in the INSERT batch
+        String ndjson = """
+                {"title": "Import row 1", "priority": "LOW", "deadline": "%1$s"}
+                {"title": "Import row 2", "priority": "LOW", "deadline": "%1$s"}
+                {"title": "Import row \\u0000 3", "priority": "LOW", "deadline": "%1$s"}
+                {"title": "Import row 4", "priority": "LOW", "deadline": "%1$s"}
+                {"title": "Import row 5", "priority": "LOW", "deadline": "%1$s"}
+                """.formatted(deadline);
+        
+        TaskImportResult result = importExportService.importTasks(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                TaskImportExportService.Format.NDJSON, false, UserPrincipal.from(creator));
+        
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(3);
+            assertThat(error.getMessage()).startsWith("Rejected by database: ");
+        });
+        assertThat(jdbcTemplate.queryForList("SELECT title FROM tasks WHERE created_by_id = ? ORDER BY id",
+                String.class, creator.getId()))
+                .containsExactly("Import row 1", "Import row 2", "Import row 4", "Import row 5");
+    }
+    
+    @Test
+    void csvExportReadsBackAsItWasImported() throws Exception {
+        User creator = createUser(User.Role.EDITOR);
+        String category = "csv-" + UUID.randomUUID();
+        LocalDateTime deadline = LocalDateTime.now().plusDays(5).withNano(0);
+        String csv = "title,description,priority,status,deadline,category,tags\n"
+                + "Plain row,,HIGH,TODO," + deadline + "," + category + ",backend\n"
+                + "\"Quoted, \"\"escaped\"\" row\",\"two\nlines\",LOW,IN_PROGRESS," + deadline.plusHours(1) + ","
+                + category + ",\"api, docs\"\n";
+        
+        TaskImportResult imported = importCsv(csv, creator);
+        assertThat(imported.getErrors()).isEmpty();
+        assertThat(imported.getImported()).isEqualTo(2);
+        
+        String exported = exportCsv(category);
+        List<TaskResponse> rows = readCsv(exported);
+        assertThat(rows).extracting(TaskResponse::getTitle, TaskResponse::getDescription, TaskResponse::getPriority,
+                        TaskResponse::getStatus, TaskResponse::getDeadline, TaskResponse::getTags)
+                .containsExactly(
+                        tuple("Plain row", null, Task.Priority.HIGH, Task.Status.TODO, deadline, "backend"),
+                        tuple("Quoted, \"escaped\" row", "two\nlines", Task.Priority.LOW,
+                                Task.Status.IN_PROGRESS, deadline.plusHours(1), "api, docs"));
+        assertThat(rows).allSatisfy(row -> {
+            assertThat(row.getCategory()).isEqualTo(category);
+            assertThat(row.getCreatedById()).isEqualTo(creator.getId());
+        });
+        
+        // The export is itself a valid import: its extra columns are ignored
+        TaskImportResult reimported = importCsv(exported, creator);
+        assertThat(reimported.getErrors()).isEmpty();
+        assertThat(reimported.getImported()).isEqualTo(2);
+        assertThat(readCsv(exportCsv(category))).extracting(TaskResponse::getTitle)
+                .containsExactly("Plain row", "Quoted, \"escaped\" row", "Plain row", "Quoted, \"escaped\" row");
+    }
+    
+    private TaskImportResult importCsv(String csv, User creator) {
+        return importExportService.importTasks(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                TaskImportExportService.Format.CSV, false, UserPrincipal.from(creator));
+    }
+    
+    private String exportCsv(String category) throws Exception {
+        TaskFilter filter = new TaskFilter();
+        filter.setCategory(category);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importExportService.exportTasks(filter, TaskImportExportService.Format.CSV, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    private static List<TaskResponse> readCsv(String csv) throws Exception {
+        // Read empty cells as null, as the import does
+        CsvMapper mapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .build();
+        try (MappingIterator<TaskResponse> rows = mapper.readerFor(TaskResponse.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(csv)) {
+            return rows.readAll();
+        }
+    }
+}
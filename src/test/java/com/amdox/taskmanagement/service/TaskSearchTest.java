@@ -0,0 +1,114 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.CommentRequest;
+import com.amdox.taskmanagement.dto.CommentResponse;
+import com.amdox.taskmanagement.dto.PageResponse;
+import com.amdox.taskmanagement.dto.TaskPatchRequest;
+import com.amdox.taskmanagement.dto.TaskRequest;
+import com.amdox.taskmanagement.dto.TaskResponse;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search runs on the trigger-maintained search_vector, so these tests go through the normal
+ * write paths and check the document followed. Each test searches for a word of its own, so
+ * rows left by other tests never match.
+ */
+class TaskSearchTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private CommentService commentService;
+    
+    private UserPrincipal author;
+    
+    private String word;
+    
+    @BeforeEach
+    void setUp() {
+        author = UserPrincipal.from(createUser(User.Role.EDITOR));
+        word = "w" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+    }
+    
+    @Test
+    void matchesRankByTheFieldTheyAreIn() {
+        Long inDescription = createTask("Description match", request -> request.setDescription("mentions " + word));
+        Long inComment = createTask("Comment match", request -> { });
+        commentService.addComment(comment(inComment, "see " + word), author);
+        Long inTitle = createTask("Title match " + word, request -> { });
+        Long inTags = createTask("Tag match", request -> request.setTags(word));
+        
+        assertThat(search(word)).containsExactly(inTitle, inTags, inDescription, inComment);
+    }
+    
+    @Test
+    void editedTaskIsFoundByItsNewText() {
+        Long taskId = createTask("Before " + word, request -> { });
+        String renamed = word + "x";
+        
+        TaskPatchRequest patch = new TaskPatchRequest();
+        patch.setTitle("After " + renamed);
+        taskService.patchTask(taskId, patch, null, author);
+        
+        assertThat(search(word)).isEmpty();
+        assertThat(search(renamed)).containsExactly(taskId);
+    }
+    
+    @Test
+    void commentsAddAndRemoveTheirWords() {
+        Long taskId = createTask("Commented task", request -> { });
+        assertThat(search(word)).isEmpty();
+        
+        CommentResponse comment = commentService.addComment(comment(taskId, "found via " + word), author);
+        assertThat(search(word)).containsExactly(taskId);
+        
+        commentService.deleteComment(comment.getId(), author);
+        assertThat(search(word)).isEmpty();
+    }
+    
+    @Test
+    void pagesThroughEqualScoresWithoutRepeats() {
+        List<Long> ids = List.of(
+                createTask("Same " + word + " one", request -> { }),
+                createTask("Same " + word + " two", request -> { }),
+                createTask("Same " + word + " six", request -> { }));
+        
+        PageResponse<TaskResponse> first = taskService.searchTasks(word, null, 2);
+        PageResponse<TaskResponse> second = taskService.searchTasks(word, first.getNextCursor(), 2);
+        
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.isHasMore()).isFalse();
+        // Ties on score come back newest id first
+        assertThat(first.getItems()).extracting(TaskResponse::getId).containsExactly(ids.get(2), ids.get(1));
+        assertThat(second.getItems()).extracting(TaskResponse::getId).containsExactly(ids.get(0));
+    }
+    
+    private Long createTask(String title, Consumer<TaskRequest> settings) {
+        TaskRequest request = TaskServiceTest.taskRequest(title);
+        settings.accept(request);
+        return taskService.createTask(request, author).getId();
+    }
+    
+    private List<Long> search(String query) {
+        return taskService.searchTasks(query, null, 50).getItems().stream().map(TaskResponse::getId).toList();
+    }
+    
+    private static CommentRequest comment(Long taskId, String content) {
+        CommentRequest request = new CommentRequest();
+        request.setTaskId(taskId);
+        request.setContent(content);
+        return request;
+    }
+}
@@ -0,0 +1,139 @@
+package com.amdox.taskmanagement.service;
+
+import com.amdox.taskmanagement.PostgresIntegrationTest;
+import com.amdox.taskmanagement.dto.TaskBulkUpdateRequest;
+import com.amdox.taskmanagement.dto.TaskBulkUpdateResult;
+import com.amdox.taskmanagement.dto.TaskPatchRequest;
+import com.amdox.taskmanagement.dto.TaskRequest;
+import com.amdox.taskmanagement.dto.TaskResponse;
+import com.amdox.taskmanagement.entity.Task;
+import com.amdox.taskmanagement.entity.User;
+import com.amdox.taskmanagement.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskServiceTest extends PostgresIntegrationTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void createdTaskResponseCarriesDatabaseTimestamps() {
+        User creator = createUser(User.Role.EDITOR);
+        
+        TaskResponse created = taskService.createTask(taskRequest("Write the release notes"), UserPrincipal.from(creator));
+        
+        assertThat(created.getId()).isNotNull();
+        assertThat(created.getCreatedAt()).isNotNull();
+        assertThat(created.getUpdatedAt()).isNotNull();
+        assertThat(created.getVersion()).isZero();
+        assertThat(created.getCreatedByName()).isEqualTo(creator.getFullName());
+    }
+    
+    @Test
+    void bulkUpdateSkipsTasksTheCallerMayNotModify() {
+        User editor = createUser(User.Role.EDITOR);
+        User other = createUser(User.Role.EDITOR);
+        TaskResponse own = taskService.createTask(taskRequest("Own task"), UserPrincipal.from(editor));
+        TaskResponse foreign = taskService.createTask(taskRequest("Someone else's task"), UserPrincipal.from(other));
+        long missing = Long.MAX_VALUE;
+        
+        TaskBulkUpdateResult result = taskService.bulkUpdate(
+                bulkRequest(List.of(own.getId(), foreign.getId(), missing), patch -> patch.setStatus(Task.Status.IN_PROGRESS)),
+                UserPrincipal.from(editor));
+        
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getSkippedIds()).containsExactly(foreign.getId(), missing);
+        assertThat(taskService.getTaskById(own.getId()).getStatus()).isEqualTo(Task.Status.IN_PROGRESS);
+        TaskResponse untouched = taskService.getTaskById(foreign.getId());
+        assertThat(untouched.getStatus()).isEqualTo(Task.Status.TODO);
+        assertThat(untouched.getVersion()).isEqualTo(foreign.getVersion());
+    }
+    
+    @Test
+    void bulkCompletionStampsCompletedAtOnceAndBumpsVersions() {
+        User editor = createUser(User.Role.EDITOR);
+        UserPrincipal principal = UserPrincipal.from(editor);
+        TaskResponse open = taskService.createTask(taskRequest("Open task"), principal);
+        TaskResponse done = taskService.createTask(taskRequest("Finished task"), principal);
+        TaskPatchRequest complete = new TaskPatchRequest();
+        complete.setStatus(Task.Status.COMPLETED);
+        taskService.patchTask(done.getId(), complete, null, principal);
+        TaskResponse doneBefore = taskService.getTaskById(done.getId());
+        
+        taskService.bulkUpdate(bulkRequest(List.of(open.getId(), done.getId()), patch -> patch.setStatus(Task.Status.COMPLETED)),
+                principal);
+        
+        TaskResponse openAfter = taskService.getTaskById(open.getId());
+        assertThat(openAfter.getStatus()).isEqualTo(Task.Status.COMPLETED);
+        assertThat(openAfter.getCompletedAt()).isNotNull();
+        assertThat(openAfter.getVersion()).isEqualTo(open.getVersion() + 1);
+        assertThat(openAfter.getUpdatedAt()).isAfter(open.getUpdatedAt());
+        // Already completed tasks keep the time they were completed at
+        TaskResponse doneAfter = taskService.getTaskById(done.getId());
+        assertThat(doneAfter.getCompletedAt()).isEqualTo(doneBefore.getCompletedAt());
+        assertThat(doneAfter.getVersion()).isEqualTo(doneBefore.getVersion() + 1);
+    }
+    
+    @Test
+    void bulkUpdateSendsOneDigestPerUser() {
+        User creator = createUser(User.Role.EDITOR);
+        User assignee = createUser(User.Role.VIEWER);
+        UserPrincipal principal = UserPrincipal.from(creator);
+        List<Long> ids = List.of(
+                taskService.createTask(taskRequest("Digest task 1"), principal).getId(),
+                taskService.createTask(taskRequest("Digest task 2"), principal).getId(),
+                taskService.createTask(taskRequest("Digest task 3"), principal).getId());
+        
+        TaskBulkUpdateResult result = taskService.bulkUpdate(bulkRequest(ids, patch -> {
+            patch.setAssignedToId(assignee.getId());
+            patch.setStatus(Task.Status.COMPLETED);
+        }), principal);
+        
+        assertThat(result.getUpdated()).isEqualTo(3);
+        List<Map<String, Object>> toAssignee = outboxEvents(assignee);
+        assertThat(toAssignee).extracting(event -> event.get("type"))
+                .containsExactlyInAnyOrder("NOTIFICATION", "TASK_DIGEST_EMAIL");
+        assertThat(toAssignee).allSatisfy(event -> {
+            assertThat(event.get("task_id")).isNull();
+            assertThat((String) event.get("message")).startsWith("3 tasks assigned to you: ");
+        });
+        List<Map<String, Object>> toCreator = outboxEvents(creator);
+        assertThat(toCreator).singleElement().satisfies(event -> {
+            assertThat(event.get("notification_type")).isEqualTo("TASK_COMPLETED");
+            assertThat((String) event.get("message")).startsWith("3 tasks completed: ");
+        });
+    }
+    
+    static TaskRequest taskRequest(String title) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        request.setPriority(Task.Priority.MEDIUM);
+        request.setDeadline(LocalDateTime.now().plusDays(7));
+        return request;
+    }
+    
+    private static TaskBulkUpdateRequest bulkRequest(List<Long> ids, Consumer<TaskBulkUpdateRequest.Patch> settings) {
+        TaskBulkUpdateRequest request = new TaskBulkUpdateRequest();
+        request.setIds(ids);
+        request.setPatch(new TaskBulkUpdateRequest.Patch());
+        settings.accept(request.getPatch());
+        return request;
+    }
+    
+    private List<Map<String, Object>> outboxEvents(User user) {
+        return jdbcTemplate.queryForList(
+                "SELECT type, notification_type, task_id, message FROM outbox_events WHERE user_id = ?", user.getId());
+    }
+}